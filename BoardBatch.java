@@ -0,0 +1,241 @@
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+
+/**
+ * Steps many BoardModels in lockstep for bots and learning agents.
+ * Every step writes the visible state of all boards into one reusable
+ * direct ByteBuffer, one byte per Cell, using the counts of
+ * Cell.getMinesCount() for revealed Cells (MINED for a revealed mine),
+ * HIDDEN and FLAGGED otherwise. Boards are split across worker threads
+ * created once; a step allocates nothing.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class BoardBatch{
+  public static final byte HIDDEN = 9;
+  public static final byte FLAGGED = 10;
+  public static final int REVEAL = 0;
+  public static final int FLAG = 1;
+  public static final int CHORD = 2;
+  /** Result of a step: game still going. */
+  public static final byte PLAYING = 0;
+  /** Result of a step: game won, board was restarted. */
+  public static final byte WON = 1;
+  /** Result of a step: game lost, board was restarted. */
+  public static final byte LOST = -1;
+
+  private BoardModel[] boards;
+  private Random[] randoms;
+  private int cells;
+  private ByteBuffer observation;
+  private byte[] results;
+  private int[] actions;
+  private Phaser phaser;
+  private Thread[] workers;
+  private volatile boolean isClosed;
+
+  /**
+   * Starts a batch of boards of the same size.
+   * @param count Number of boards.
+   * @param row Number of rows of each board.
+   * @param col Number of cols of each board.
+   * @param mines Number of mines of each board.
+   * @param seed Seed of the first board; board i uses seed + i.
+   * @param threads Number of threads to step with, 1 to step on the caller.
+   * @throws IllegalArgumentException If count or threads is not positive.
+   */
+  public BoardBatch(int count, int row, int col, int mines, long seed, int threads){
+    if(count <= 0 || threads <= 0){
+      throw new IllegalArgumentException("Expected positive count and threads.");
+    }
+    boards = new BoardModel[count];
+    randoms = new Random[count];
+    // one neighbor table serves every board
+    Topology topology = Topology.square(row, col);
+    for(int i = 0; i < count; i++){
+      boards[i] = new BoardModel(topology, mines);
+      randoms[i] = new Random(seed + i);
+      boards[i].newGame(randoms[i]);
+    }
+    cells = row * col;
+    observation = ByteBuffer.allocateDirect(count * cells);
+    results = new byte[count];
+    for(int i = 0; i < count; i++){
+      observe(i);
+    }
+
+    threads = Math.min(threads, count);
+    workers = new Thread[threads - 1];
+    phaser = new Phaser(threads);
+    // the caller steps the last slice itself
+    for(int w = 0; w < workers.length; w++){
+      final int from = w * count / threads;
+      final int to = (w + 1) * count / threads;
+      workers[w] = new Thread(new Runnable(){
+        public void run(){
+          while(true){
+            phaser.arriveAndAwaitAdvance();
+            if(isClosed){
+              return;
+            }
+            stepRange(from, to);
+            phaser.arriveAndAwaitAdvance();
+          }
+        }
+      }, "BoardBatch-" + w);
+      workers[w].setDaemon(true);
+      workers[w].start();
+    }
+  }
+
+  /**
+   * Returns the number of boards.
+   * @return The number of boards.
+   */
+  public int getCount(){
+    return boards.length;
+  }
+
+  /**
+   * Returns the number of Cells of each board.
+   * @return The number of Cells of each board.
+   */
+  public int getCellsCount(){
+    return cells;
+  }
+
+  /**
+   * Returns the observation, board i starting at byte i * getCellsCount().
+   * The same buffer is rewritten by every step.
+   * @return The observation.
+   */
+  public ByteBuffer getObservation(){
+    return observation;
+  }
+
+  /**
+   * Returns the result of the last step for each board; the same
+   * array is rewritten by every step.
+   * @return PLAYING, WON or LOST per board.
+   */
+  public byte[] getResults(){
+    return results;
+  }
+
+  /**
+   * Returns a board, for inspection only.
+   * @param i Board number.
+   * @return The board.
+   */
+  public BoardModel getBoard(int i){
+    return boards[i];
+  }
+
+  /**
+   * Applies one action per board. An action is type * cells + index
+   * with type REVEAL, FLAG or CHORD; a negative action does nothing.
+   * Finished boards are restarted so the observation always shows a game.
+   * @param actions One action per board.
+   * @throws IllegalArgumentException If not exactly one action per board.
+   * @throws IllegalStateException If the batch was closed.
+   */
+  public void step(int[] actions){
+    if(actions == null || actions.length != boards.length){
+      throw new IllegalArgumentException("Expected one action per board.");
+    }
+    if(isClosed){
+      throw new IllegalStateException("Batch is closed.");
+    }
+    this.actions = actions;
+    if(workers.length == 0){
+      stepRange(0, boards.length);
+      return;
+    }
+    phaser.arriveAndAwaitAdvance();
+    stepRange(workers.length * boards.length / (workers.length + 1), boards.length);
+    phaser.arriveAndAwaitAdvance();
+  }
+
+  /* Steps boards from (inclusive) to (exclusive). */
+  private void stepRange(int from, int to){
+    for(int i = from; i < to; i++){
+      int action = actions[i];
+      BoardModel board = boards[i];
+      if(action >= 0){
+        int index = action % cells;
+        switch(action / cells){
+          case REVEAL:
+            board.reveal(index);
+            break;
+          case FLAG:
+            board.flag(index);
+            break;
+          case CHORD:
+            board.wideReveal(index);
+            break;
+        }
+      }
+      if( board.isGameOver() ){
+        results[i] = board.isVictory() ? WON : LOST;
+        board.newGame(randoms[i]);
+      }else{
+        results[i] = PLAYING;
+      }
+      observe(i);
+    }
+  }
+
+  /* Writes the visible state of board i. */
+  private void observe(int i){
+    BoardModel board = boards[i];
+    int offset = i * cells;
+    for(int c = 0; c < cells; c++){
+      byte value;
+      if( board.isFlagged(c) ){
+        value = FLAGGED;
+      }else if( board.isRevealed(c) ){
+        value = (byte) board.getMinesCount(c);
+      }else{
+        value = HIDDEN;
+      }
+      observation.put(offset + c, value);
+    }
+  }
+
+  /** Stops the worker threads. */
+  public void close(){
+    if(isClosed){
+      return;
+    }
+    isClosed = true;
+    if(workers.length > 0){
+      phaser.arriveAndAwaitAdvance();
+    }
+  }
+
+  /**
+   * Measures steps per second with random actions.
+   * @param args [boards] [threads] [steps]
+   */
+  public static void main(String[] args){
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    int steps = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+    BoardBatch batch = new BoardBatch(count, 9, 9, 10, 0, threads);
+    int[] actions = new int[count];
+    Random random = new Random(0);
+    long start = System.nanoTime();
+    for(int s = 0; s < steps; s++){
+      for(int i = 0; i < count; i++){
+        actions[i] = random.nextInt(batch.getCellsCount());
+      }
+      batch.step(actions);
+    }
+    long elapsed = System.nanoTime() - start;
+    batch.close();
+    System.out.printf("%.0f environment steps/s%n", (double) count * steps / (elapsed / 1e9));
+  }
+
+}
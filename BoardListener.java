@@ -0,0 +1,16 @@
+/**
+ * Interface for listeners of single Cell changes in a BoardModel.
+ * 
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public interface BoardListener{
+  /**
+   * Called after a Cell was revealed, flagged or deflagged.
+   * @param index Index of the changed Cell.
+   */
+  public void cellChanged(int index);
+  
+  /** Called after the board was refilled for a new game. */
+  public void boardReset();
+}
@@ -0,0 +1,265 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difficulty of a mine layout: 3BV (the least clicks needed to clear it),
+ * openings, islands and how often a solver is forced to guess.
+ * 3BV, openings and islands come from a pass over the neighbor table
+ * of any Topology that counts mines, then a pass with a union-find,
+ * without recursion.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class BoardMetrics{
+  private static final int SEEDS_PER_CHUNK = 4096;
+
+  private int bbbv;
+  private int openings;
+  private int islands;
+
+  /* Only compute() creates metrics. */
+  private BoardMetrics(){
+  }
+
+  /**
+   * Returns the 3BV: openings plus numbers not touching any opening.
+   * @return The 3BV.
+   */
+  public int get3BV(){
+    return bbbv;
+  }
+
+  /**
+   * Returns the number of openings, areas of connected zeros.
+   * @return The number of openings.
+   */
+  public int getOpenings(){
+    return openings;
+  }
+
+  /**
+   * Returns the number of islands, groups of connected numbers that
+   * touch no opening.
+   * @return The number of islands.
+   */
+  public int getIslands(){
+    return islands;
+  }
+
+  /**
+   * Returns the mine layout of a board as a bitset.
+   * @param board Board to read.
+   * @return Bit i is set if Cell i is mined.
+   */
+  public static long[] minesOf(BoardModel board){
+    int cells = board.getTopology().getCellsCount();
+    long[] mines = new long[(cells + 63) / 64];
+    for(int i = 0; i < cells; i++){
+      if( board.isMined(i) ){
+        mines[i >>> 6] |= 1L << i;
+      }
+    }
+    return mines;
+  }
+
+  /**
+   * Measures a layout of the classic grid.
+   * @param mines Bit (row * col + column) set if that Cell is mined.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return Metrics of the layout.
+   */
+  public static BoardMetrics compute(long[] mines, int row, int col){
+    return compute(mines, Topology.square(row, col));
+  }
+
+  /**
+   * Measures a layout on any topology: one pass counts the mines from the
+   * neighbor table, a second unions each Cell with its lower neighbors.
+   * @param mines Bit i set if Cell i is mined.
+   * @param topology Which Cells neighbor each other.
+   * @return Metrics of the layout.
+   */
+  public static BoardMetrics compute(long[] mines, Topology topology){
+    BoardMetrics m = new BoardMetrics();
+    int[] starts = topology.getStarts();
+    int[] neighbors = topology.getNeighbors();
+    int cells = topology.getCellsCount();
+    int[] counts = new int[cells];
+    for(int i = 0; i < cells; i++){
+      if( isMined(mines, i) ){
+        counts[i] = BoardModel.MINED;
+        continue;
+      }
+      for(int k = starts[i]; k < starts[i + 1]; k++){
+        if( isMined(mines, neighbors[k]) ){
+          counts[i]++;
+        }
+      }
+    }
+    int[] parent = new int[cells];
+    int zeros = 0;
+    int lones = 0;
+    int zeroUnions = 0;
+    int loneUnions = 0;
+    for(int i = 0; i < cells; i++){
+      parent[i] = -1;
+      if(counts[i] < 0){
+        continue;
+      }
+      boolean isZero = counts[i] == 0;
+      if(!isZero && touchesZero(i, counts, starts, neighbors)){
+        continue; // cleared by its opening
+      }
+      parent[i] = i;
+      if(isZero){
+        zeros++;
+      }else{
+        lones++;
+      }
+      // join the already scanned neighbors of the same kind
+      int unions = 0;
+      for(int k = starts[i]; k < starts[i + 1]; k++){
+        int n = neighbors[k];
+        if(n < i){
+          unions += joinIfSame(parent, i, n, isZero, counts[n]);
+        }
+      }
+      if(isZero){
+        zeroUnions += unions;
+      }else{
+        loneUnions += unions;
+      }
+    }
+    m.openings = zeros - zeroUnions;
+    m.islands = lones - loneUnions;
+    m.bbbv = m.openings + lones;
+    return m;
+  }
+
+  /* Checks the neighbors of Cell i for a zero. */
+  private static boolean touchesZero(int i, int[] counts, int[] starts, int[] neighbors){
+    for(int k = starts[i]; k < starts[i + 1]; k++){
+      if(counts[neighbors[k]] == 0){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /* Unions i with a scanned neighbor of the same kind. Returns 1 if two sets merged. */
+  private static int joinIfSame(int[] parent, int i, int n, boolean isZero, int count){
+    if(parent[n] < 0 || (count == 0) != isZero){
+      return 0;
+    }
+    int a = find(parent, i);
+    int b = find(parent, n);
+    if(a == b){
+      return 0;
+    }
+    parent[a] = b;
+    return 1;
+  }
+
+  /* Root of i, halving the path on the way. */
+  private static int find(int[] parent, int i){
+    while(parent[i] != i){
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /* Checks bit i. */
+  private static boolean isMined(long[] mines, int i){
+    return (mines[i >>> 6] & (1L << i)) != 0;
+  }
+
+  /**
+   * Plays a fresh board with the solver and counts how often it got stuck
+   * after the first click; each time, a safe Cell (a zero if any) is
+   * revealed for it. The board is played to the end.
+   * @param board Board with a new game and the solver attached.
+   * @param solver Solver attached to the board.
+   * @return Number of guesses required.
+   */
+  public static int countGuesses(BoardModel board, IncrementalSolver solver){
+    int stuck = 0;
+    int cells = board.getTopology().getCellsCount();
+    while(! board.isGameOver() ){
+      solver.playProvenMoves();
+      if( board.isGameOver() ){
+        break;
+      }
+      int pick = -1;
+      for(int i = 0; i < cells; i++){
+        if(!board.isRevealed(i) && !board.isMined(i)){
+          if(board.getMinesCount(i) == 0){
+            pick = i;
+            break;
+          }
+          if(pick < 0){
+            pick = i;
+          }
+        }
+      }
+      if( board.isFlagged(pick) ){
+        board.flag(pick);
+      }
+      board.reveal(pick);
+      stuck++;
+    }
+    return Math.max(stuck - 1, 0);
+  }
+
+  /**
+   * Scores consecutive seeds on every core and prints one CSV line each:
+   * seed, 3BV, openings, islands, guesses.
+   * @param args rows cols mines [first seed] [count] [threads] [topology]
+   */
+  public static void main(String[] args) throws InterruptedException{
+    if(args.length < 3){
+      System.err.println("Usage: BoardMetrics rows cols mines [first seed] [count] [threads] [topology]");
+      return;
+    }
+    final int row = Integer.parseInt(args[0]);
+    final int col = Integer.parseInt(args[1]);
+    final int mines = Integer.parseInt(args[2]);
+    final long first = args.length > 3 ? Long.parseLong(args[3]) : 0;
+    final long end = first + (args.length > 4 ? Long.parseLong(args[4]) : 1000000);
+    int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+    final Topology topology = Topology.named(args.length > 6 ? args[6] : "SQUARE", row, col);
+    final AtomicLong next = new AtomicLong(first);
+
+    Thread[] workers = new Thread[threads];
+    for(int t = 0; t < threads; t++){
+      workers[t] = new Thread(new Runnable(){
+        public void run(){
+          BoardModel board = new BoardModel(topology, mines);
+          IncrementalSolver solver = new IncrementalSolver(board);
+          StringBuilder out = new StringBuilder();
+          long from;
+          while((from = next.getAndAdd(SEEDS_PER_CHUNK)) < end){
+            out.setLength(0);
+            for(long seed = from; seed < Math.min(from + SEEDS_PER_CHUNK, end); seed++){
+              board.newGame(seed);
+              BoardMetrics m = compute(minesOf(board), topology);
+              int guesses = countGuesses(board, solver);
+              out.append(seed).append(',').append(m.bbbv).append(',').append(m.openings).append(',')
+                .append(m.islands).append(',').append(guesses).append('\n');
+            }
+            synchronized(System.out){
+              System.out.print(out);
+            }
+          }
+        }
+      });
+      workers[t].start();
+    }
+    for(Thread t : workers){
+      t.join();
+    }
+    System.out.flush();
+  }
+
+}
@@ -0,0 +1,548 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless data of one game, following the same rules as GameBoard.
+ * Cells are addressed by index (row * col + column) so no Swing or
+ * per-move objects are needed.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class BoardModel{
+  public static final int MINED = -1;
+
+  private int row;
+  private int col;
+  private Topology topology;
+  // the neighbors of Cell i are neighbors[starts[i]] to neighbors[starts[i + 1] - 1]
+  private int[] starts;
+  private int[] neighbors;
+  private int totalMinesCount;
+  private int remainingCells;
+  private int totalFlagsCount;
+  private int flaggedMinesCount;
+  private int[] minesCount;
+  private CellMask revealed;
+  private CellMask flagged;
+  private boolean isPlaying;
+  private boolean isGameOver;
+  private boolean isVictory;
+  // reused by expand() and fillMinefield()
+  private int[] workStack;
+  private List<BoardListener> listeners;
+
+  /**
+   * Starts an empty square BoardModel; call newGame() to lay down mines.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param totalMinesCount Number of mines.
+   * @throws IllegalArgumentException If dimensions are not positive.
+   * @throws IllegalArgumentException If mines do not fit the board.
+   */
+  public BoardModel(int row, int col, int totalMinesCount){
+    this(Topology.square(row, col), totalMinesCount);
+  }
+
+  /**
+   * Starts an empty BoardModel of any topology; call newGame() to lay
+   * down mines. Boards of the same shape may share one Topology.
+   * @param topology Shape and neighbors of the board.
+   * @param totalMinesCount Number of mines.
+   * @throws IllegalArgumentException If topology is null.
+   * @throws IllegalArgumentException If mines do not fit the board.
+   */
+  public BoardModel(Topology topology, int totalMinesCount){
+    this(topology, totalMinesCount, false);
+  }
+
+  /**
+   * Starts an empty BoardModel, optionally keeping the revealed and
+   * flagged Cells as runs per row (see IntervalMask) rather than one
+   * entry per Cell; for huge boards with few mines.
+   * @param topology Shape and neighbors of the board.
+   * @param totalMinesCount Number of mines.
+   * @param isIntervalEncoded True to keep runs per row.
+   * @throws IllegalArgumentException If topology is null.
+   * @throws IllegalArgumentException If mines do not fit the board.
+   */
+  public BoardModel(Topology topology, int totalMinesCount, boolean isIntervalEncoded){
+    if(topology == null){
+      throw new IllegalArgumentException("Expected topology.");
+    }
+    this.row = topology.getRow();
+    this.col = topology.getCol();
+    if(totalMinesCount < 0 || totalMinesCount >= row * col){
+      throw new IllegalArgumentException("Mines do not fit the board.");
+    }
+    this.topology = topology;
+    starts = topology.getStarts();
+    neighbors = topology.getNeighbors();
+    this.totalMinesCount = totalMinesCount;
+    minesCount = new int[row * col];
+    if(isIntervalEncoded){
+      revealed = new IntervalMask(row, col);
+      flagged = new IntervalMask(row, col);
+    }else{
+      revealed = new ArrayMask(row, col);
+      flagged = new ArrayMask(row, col);
+    }
+    workStack = new int[row * col];
+    listeners = new ArrayList<BoardListener>();
+  }
+
+  /**
+   * Registers the listener with the BoardModel.
+   * @throws IllegalArgumentException If given null argument.
+   */
+  public void addListener(BoardListener l){
+    if(l == null){
+      throw new IllegalArgumentException("Expected non-null listener.");
+    }
+    listeners.add(l);
+  }
+
+  /* Notifies all listeners of a changed Cell. */
+  private void notifyCellChanged(int index){
+    for(int i = 0; i < listeners.size(); i++){
+      listeners.get(i).cellChanged(index);
+    }
+  }
+
+  /**
+   * Handles creating a new game with a seeded layout.
+   * @param seed Seed of the mine layout.
+   */
+  public void newGame(long seed){
+    newGame(new Random(seed));
+  }
+
+  /**
+   * Handles creating a new game, also resets. Allocates nothing.
+   * @param random Source of the mine layout.
+   */
+  public void newGame(Random random){
+    Arrays.fill(minesCount, 0);
+    revealed.clear();
+    flagged.clear();
+    remainingCells = row * col;
+    totalFlagsCount = 0;
+    flaggedMinesCount = 0;
+    isPlaying = false;
+    isGameOver = false;
+    isVictory = false;
+    fillMinefield(random);
+    for(int i = 0; i < listeners.size(); i++){
+      listeners.get(i).boardReset();
+    }
+  }
+
+  /* Fills the minefield the same way GameBoard does. */
+  private void fillMinefield(Random random){
+    int[] numberTable = workStack;
+    for(int i = 0; i < numberTable.length; i++){
+      numberTable[i] = i;
+    }
+    int upperBound = numberTable.length;
+    for(int m = 0; m < totalMinesCount; m++){
+      int pickIndex = random.nextInt(upperBound);
+      int pick = numberTable[pickIndex];
+      upperBound--;
+      // swap to unused index
+      numberTable[pickIndex] = numberTable[upperBound];
+      numberTable[upperBound] = pick;
+      setCellMined(pick);
+    }
+  }
+
+  /* Lays down a mine and increment neighbor Cells. */
+  private void setCellMined(int index){
+    minesCount[index] = MINED;
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      int n = neighbors[k];
+      if(minesCount[n] != MINED){
+        minesCount[n]++;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of rows.
+   * @return The number of rows.
+   */
+  public int getRow(){
+    return row;
+  }
+
+  /**
+   * Returns the number of cols.
+   * @return The number of cols.
+   */
+  public int getCol(){
+    return col;
+  }
+
+  /**
+   * Returns the shape and neighbors of the board.
+   * @return The topology of the board.
+   */
+  public Topology getTopology(){
+    return topology;
+  }
+
+  /**
+   * Returns total mines count.
+   * @return Total mines count.
+   */
+  public int getTotalMinesCount(){
+    return totalMinesCount;
+  }
+
+  /**
+   * Returns total flags count.
+   * @return Total flags count.
+   */
+  public int getTotalFlagsCount(){
+    return totalFlagsCount;
+  }
+
+  /**
+   * Returns the number of flags placed on mines.
+   * @return Flagged mines count.
+   */
+  public int getFlaggedMinesCount(){
+    return flaggedMinesCount;
+  }
+
+  /**
+   * Returns the number of Cells not yet revealed.
+   * @return The number of Cells not yet revealed.
+   */
+  public int getRemainingCells(){
+    return remainingCells;
+  }
+
+  /**
+   * Returns true once the first Cell has been revealed and until game over.
+   * @return True if the game is being played.
+   */
+  public boolean isPlaying(){
+    return isPlaying;
+  }
+
+  /**
+   * Returns true if game is over.
+   * @return True if game is over.
+   */
+  public boolean isGameOver(){
+    return isGameOver;
+  }
+
+  /**
+   * Returns true if game is over and was won.
+   * @return True if game was won.
+   */
+  public boolean isVictory(){
+    return isVictory;
+  }
+
+  /**
+   * Returns the mines count of a Cell, or MINED.
+   * @param index Cell index.
+   * @return The count of mines in the neighbors, or MINED.
+   */
+  public int getMinesCount(int index){
+    return minesCount[index];
+  }
+
+  /**
+   * Returns true if the Cell is mined.
+   * @param index Cell index.
+   * @return True if the Cell is mined.
+   */
+  public boolean isMined(int index){
+    return minesCount[index] == MINED;
+  }
+
+  /**
+   * Returns true if the Cell is revealed.
+   * @param index Cell index.
+   * @return True if the Cell is revealed.
+   */
+  public boolean isRevealed(int index){
+    return revealed.get(index);
+  }
+
+  /**
+   * Writes the revealed runs of a row as pairs of first and
+   * past-the-last col, for drawing.
+   * @param row Row position.
+   * @param runs Receives the pairs; needs room for col + 1 ints.
+   * @return Number of runs written.
+   */
+  public int getRevealedRuns(int row, int[] runs){
+    return revealed.getRuns(row, runs);
+  }
+
+  /**
+   * Writes the flagged runs of a row as pairs of first and
+   * past-the-last col, for drawing.
+   * @param row Row position.
+   * @param runs Receives the pairs; needs room for col + 1 ints.
+   * @return Number of runs written.
+   */
+  public int getFlaggedRuns(int row, int[] runs){
+    return flagged.getRuns(row, runs);
+  }
+
+  /**
+   * Returns the approximate bytes held by the revealed and flagged Cells.
+   * @return The approximate memory usage of both sets.
+   */
+  public long getMaskMemoryUsage(){
+    return revealed.getMemoryUsage() + flagged.getMemoryUsage();
+  }
+
+  /**
+   * Returns true if the Cell is flagged.
+   * @param index Cell index.
+   * @return True if the Cell is flagged.
+   */
+  public boolean isFlagged(int index){
+    return flagged.get(index);
+  }
+
+  /**
+   * Returns the index of a row,col position.
+   * @param row Row position.
+   * @param col Col position.
+   * @throws IllegalArgumentException If not valid position.
+   * @return Cell index.
+   */
+  public int indexOf(int row, int col){
+    if(! isValidCell(row, col) ){
+      throw new IllegalArgumentException("Out of game bounds.");
+    }
+    return row * this.col + col;
+  }
+
+  /* Checks if Cell is within game bounds. */
+  private boolean isValidCell(int row, int col){
+    return (0 <= row) && (row < this.row) && (0 <= col) && (col < this.col);
+  }
+
+  /**
+   * Handles a left click: reveals the Cell, expanding free Cells.
+   * @param index Cell index.
+   * @return Number of Cells revealed by this move.
+   */
+  public int reveal(int index){
+    if(isGameOver || revealed.get(index) || flagged.get(index)){
+      return 0;
+    }
+    isPlaying = true;
+    int revealed = open(index);
+    judge();
+    return revealed;
+  }
+
+  /**
+   * Handles a right click: toggles the flag of an unrevealed Cell.
+   * @param index Cell index.
+   * @return Number of Cells changed by this move.
+   */
+  public int flag(int index){
+    if(isGameOver || revealed.get(index)){
+      return 0;
+    }
+    boolean isNowFlagged = !flagged.get(index);
+    flagged.set(index, isNowFlagged);
+    int delta = isNowFlagged ? 1 : -1;
+    totalFlagsCount += delta;
+    if(minesCount[index] == MINED){
+      flaggedMinesCount += delta;
+    }
+    notifyCellChanged(index);
+    judge();
+    return 1;
+  }
+
+  /**
+   * Special move triggered by L+R click; attempts to reveal the neighbors.
+   * Only executes if there's exactly N flags around a revealed N.
+   * @param index Cell index.
+   * @return Number of Cells revealed by this move.
+   */
+  public int wideReveal(int index){
+    if(isGameOver || !revealed.get(index)){
+      return 0;
+    }
+    int countFlag = 0;
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      if(flagged.get(neighbors[k])){
+        countFlag++;
+      }
+    }
+    if(countFlag != minesCount[index]){
+      return 0;
+    }
+    int revealed = 0;
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      int n = neighbors[k];
+      if(!isGameOver && !this.revealed.get(n) && !flagged.get(n)){
+        revealed += open(n);
+      }
+    }
+    judge();
+    return revealed;
+  }
+
+  /*
+   * Opens a Cell; a mine ends the game, a zero expands iteratively.
+   * Returns the number of Cells revealed.
+   */
+  private int open(int index){
+    if(minesCount[index] == MINED){
+      revealed.set(index, true);
+      remainingCells--;
+      notifyCellChanged(index);
+      defeat();
+      return 1;
+    }
+    int revealed = 0;
+    int top = 0;
+    workStack[top++] = index;
+    this.revealed.set(index, true);
+    while(top > 0){
+      int current = workStack[--top];
+      remainingCells--;
+      revealed++;
+      notifyCellChanged(current);
+      if(minesCount[current] != 0){
+        continue;
+      }
+      // expansion if there's no nearby mines
+      for(int k = starts[current]; k < starts[current + 1]; k++){
+        int n = neighbors[k];
+        if(!this.revealed.get(n) && !flagged.get(n)){
+          this.revealed.set(n, true);
+          workStack[top++] = n;
+        }
+      }
+    }
+    return revealed;
+  }
+
+  /*
+   * Puts a Cell back into a previous state without applying any rule;
+   * only MoveHistory uses this, to undo and redo.
+   */
+  void restoreCell(int index, boolean revealed, boolean flagged){
+    if(this.revealed.get(index) != revealed){
+      this.revealed.set(index, revealed);
+      remainingCells += revealed ? -1 : 1;
+    }
+    if(this.flagged.get(index) != flagged){
+      this.flagged.set(index, flagged);
+      int delta = flagged ? 1 : -1;
+      totalFlagsCount += delta;
+      if(minesCount[index] == MINED){
+        flaggedMinesCount += delta;
+      }
+    }
+    notifyCellChanged(index);
+  }
+
+  /* Puts the game status back into a previous state; see restoreCell(). */
+  void restoreStatus(boolean isPlaying, boolean isGameOver, boolean isVictory){
+    this.isPlaying = isPlaying;
+    this.isGameOver = isGameOver;
+    this.isVictory = isVictory;
+  }
+
+  /** Checks if victory condition is met. */
+  public void judge(){
+    if(isGameOver) return;
+    if(remainingCells == totalMinesCount){
+      victory();
+    }
+  }
+
+  /* Handles victorious game: flags every remaining mine. */
+  private void victory(){
+    isGameOver = true;
+    isPlaying = false;
+    isVictory = true;
+    for(int i = 0; i < minesCount.length; i++){
+      if(minesCount[i] == MINED && !flagged.get(i)){
+        flagged.set(i, true);
+        totalFlagsCount++;
+        flaggedMinesCount++;
+        notifyCellChanged(i);
+      }
+    }
+  }
+
+  /* Handles defeated game: shows every mine and every flag. */
+  private void defeat(){
+    isGameOver = true;
+    isPlaying = false;
+    for(int i = 0; i < minesCount.length; i++){
+      if(minesCount[i] == MINED && !flagged.get(i) && !revealed.get(i)){
+        revealed.set(i, true);
+        remainingCells--;
+        notifyCellChanged(i);
+      }
+    }
+  }
+
+  /** One entry per Cell; the default, fastest for boards of any density. */
+  private static class ArrayMask implements CellMask{
+    private int col;
+    private boolean[] cells;
+
+    private ArrayMask(int row, int col){
+      this.col = col;
+      cells = new boolean[row * col];
+    }
+
+    @Override
+    public boolean get(int index){
+      return cells[index];
+    }
+
+    @Override
+    public void set(int index, boolean value){
+      cells[index] = value;
+    }
+
+    @Override
+    public void clear(){
+      Arrays.fill(cells, false);
+    }
+
+    @Override
+    public int getRuns(int row, int[] runs){
+      int count = 0;
+      int from = row * col;
+      for(int c = 0; c < col; c++){
+        if(cells[from + c] && (c == 0 || !cells[from + c - 1])){
+          runs[2 * count] = c;
+        }
+        if(cells[from + c] && (c == col - 1 || !cells[from + c + 1])){
+          runs[2 * count + 1] = c + 1;
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public long getMemoryUsage(){
+      return 16 + cells.length;
+    }
+  }
+
+}
@@ -0,0 +1,381 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mine layouts generated ahead of time, so a new game only takes one.
+ * Each board size keeps a bounded queue, topped up by a daemon thread
+ * of minimum priority after every take. A take on an empty queue
+ * generates on the spot and counts as a miss.
+ *
+ * The queues are saved to a file by close() so the next start finds
+ * them full. The file is deleted as soon as it is loaded: a layout is
+ * never on disk while it may be handed out, so a crash loses the pool
+ * instead of serving a layout twice.
+ *
+ * A layout is its seed and the mine bitset that seed yields on a
+ * BoardModel, so pooled games stay replayable from the seed.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class BoardPool{
+  /** Layouts kept per board size. */
+  public static final int CAPACITY = 32;
+  private static final int FILE_MAGIC = 0x4D504F4C; // "MPOL"
+
+  private File file;
+  private Map<Long, ArrayDeque<Layout>> queues;
+  private Random random;
+  private long hits;
+  private long misses;
+  // refill lag: from the first take the queues are not full until they are again
+  private long shortSince;
+  private long lastRefillLag;
+  private long maxRefillLag;
+  private boolean isClosed;
+  private Thread refiller;
+
+  /**
+   * Opens a pool, loading the layouts left by the last run, and starts
+   * refilling it in the background.
+   * @param file Where the pool is saved, or null to keep it in memory.
+   */
+  public BoardPool(File file){
+    this.file = file;
+    queues = new LinkedHashMap<Long, ArrayDeque<Layout>>();
+    random = new Random();
+    if(file != null){
+      load();
+    }
+    refiller = new Thread(new Runnable(){
+      public void run(){
+        refill();
+      }
+    }, "Board pool");
+    refiller.setDaemon(true);
+    refiller.setPriority(Thread.MIN_PRIORITY);
+    refiller.start();
+  }
+
+  /**
+   * Keeps layouts of a board size ready from now on.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param mines Number of mines.
+   * @throws IllegalArgumentException If the size cannot hold the mines.
+   */
+  public synchronized void prepare(int row, int col, int mines){
+    if(row <= 0 || col <= 0 || mines < 0 || mines >= row * col){
+      throw new IllegalArgumentException("Invalid board size.");
+    }
+    queueOf(keyOf(row, col, mines));
+    notifyAll();
+  }
+
+  /**
+   * Takes a ready layout, or generates one if none is left. A size not
+   * prepared before is prepared by its first take.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param mines Number of mines.
+   * @return A layout not handed out before.
+   */
+  public Layout take(int row, int col, int mines){
+    long key = keyOf(row, col, mines);
+    long seed;
+    synchronized(this){
+      Layout layout = queueOf(key).poll();
+      if(shortSince == 0){
+        shortSince = System.nanoTime();
+      }
+      notifyAll();
+      if(layout != null){
+        hits++;
+        return layout;
+      }
+      misses++;
+      seed = random.nextLong();
+    }
+    return generate(row, col, mines, seed);
+  }
+
+  /**
+   * Returns the share of takes served from the pool.
+   * @return Hits over takes, or 0 before the first take.
+   */
+  public synchronized double getHitRate(){
+    long takes = hits + misses;
+    return takes == 0 ? 0 : (double) hits / takes;
+  }
+
+  /**
+   * Returns the number of takes served from the pool.
+   * @return The number of hits.
+   */
+  public synchronized long getHits(){
+    return hits;
+  }
+
+  /**
+   * Returns the number of takes that had to generate on the spot.
+   * @return The number of misses.
+   */
+  public synchronized long getMisses(){
+    return misses;
+  }
+
+  /**
+   * Returns how long the pool has been short of full, or took to be full
+   * again the last time, in nanoseconds.
+   * @return The current or last refill lag.
+   */
+  public synchronized long getRefillLagNanos(){
+    return shortSince != 0 ? System.nanoTime() - shortSince : lastRefillLag;
+  }
+
+  /**
+   * Returns the longest time the pool took to be full again.
+   * @return The longest refill lag in nanoseconds.
+   */
+  public synchronized long getMaxRefillLagNanos(){
+    return maxRefillLag;
+  }
+
+  /**
+   * Returns the number of layouts ready for a board size.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param mines Number of mines.
+   * @return The number of layouts ready.
+   */
+  public synchronized int size(int row, int col, int mines){
+    ArrayDeque<Layout> queue = queues.get(keyOf(row, col, mines));
+    return queue == null ? 0 : queue.size();
+  }
+
+  /** Stops refilling and saves what is left. */
+  public void close(){
+    Map<Long, Layout[]> snapshot;
+    synchronized(this){
+      isClosed = true;
+      notifyAll();
+    }
+    try{
+      refiller.join();
+    }catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+    }
+    synchronized(this){
+      snapshot = new LinkedHashMap<Long, Layout[]>();
+      for(Map.Entry<Long, ArrayDeque<Layout>> e : queues.entrySet()){
+        snapshot.put(e.getKey(), e.getValue().toArray(new Layout[0]));
+      }
+    }
+    // written without the lock, so takes never wait for the disk
+    save(snapshot);
+  }
+
+  /* Refiller thread: tops up the shortest queue, one layout at a time. */
+  private void refill(){
+    while(true){
+      long key = 0;
+      long seed;
+      synchronized(this){
+        while(!isClosed && (key = shortestKey()) == 0){
+          if(shortSince != 0){
+            lastRefillLag = System.nanoTime() - shortSince;
+            maxRefillLag = Math.max(maxRefillLag, lastRefillLag);
+            shortSince = 0;
+          }
+          try{
+            wait();
+          }catch(InterruptedException e){
+            return;
+          }
+        }
+        if(isClosed){
+          return;
+        }
+        seed = random.nextLong();
+      }
+      // generated without the lock, so takes never wait for it
+      Layout layout = generate(rowOf(key), colOf(key), minesOf(key), seed);
+      synchronized(this){
+        ArrayDeque<Layout> queue = queues.get(key);
+        if(queue.size() < CAPACITY){
+          queue.add(layout);
+        }
+      }
+    }
+  }
+
+  /* The key of the emptiest queue that is not full, or 0. */
+  private long shortestKey(){
+    long key = 0;
+    int size = CAPACITY;
+    for(Map.Entry<Long, ArrayDeque<Layout>> e : queues.entrySet()){
+      if(e.getValue().size() < size){
+        size = e.getValue().size();
+        key = e.getKey();
+      }
+    }
+    return key;
+  }
+
+  /* Lays the mines of a seed out exactly as BoardModel does. */
+  private static Layout generate(int row, int col, int mines, long seed){
+    BoardModel board = new BoardModel(row, col, mines);
+    board.newGame(seed);
+    return new Layout(seed, BoardMetrics.minesOf(board));
+  }
+
+  private ArrayDeque<Layout> queueOf(long key){
+    ArrayDeque<Layout> queue = queues.get(key);
+    if(queue == null){
+      queue = new ArrayDeque<Layout>(CAPACITY);
+      queues.put(key, queue);
+    }
+    return queue;
+  }
+
+  /* Sizes fit 21 bits each; a key is never 0. */
+  private static long keyOf(int row, int col, int mines){
+    return ((long) row << 42) | ((long) col << 21) | mines;
+  }
+
+  private static int rowOf(long key){
+    return (int) (key >>> 42);
+  }
+
+  private static int colOf(long key){
+    return (int) (key >>> 21) & 0x1FFFFF;
+  }
+
+  private static int minesOf(long key){
+    return (int) key & 0x1FFFFF;
+  }
+
+  /* Writes the queues next to the file, then swaps it in. */
+  private void save(Map<Long, Layout[]> snapshot){
+    if(file == null){
+      return;
+    }
+    File temp = new File(file.getPath() + ".tmp");
+    try{
+      if(file.getParentFile() != null){
+        file.getParentFile().mkdirs();
+      }
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+      try{
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(snapshot.size());
+        for(Map.Entry<Long, Layout[]> e : snapshot.entrySet()){
+          out.writeLong(e.getKey());
+          out.writeInt(e.getValue().length);
+          for(Layout layout : e.getValue()){
+            out.writeLong(layout.seed);
+            for(long word : layout.mines){
+              out.writeLong(word);
+            }
+          }
+        }
+      }finally{
+        out.close();
+      }
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+    }catch(IOException e){
+      System.err.println("Board pool not saved: " + e.getMessage());
+    }
+  }
+
+  /*
+   * Reads the queues saved by the last run and deletes the file; a bad
+   * file is ignored.
+   */
+  private void load(){
+    if(! file.isFile() ){
+      return;
+    }
+    try{
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try{
+        if(in.readInt() != FILE_MAGIC){
+          return;
+        }
+        Map<Long, ArrayDeque<Layout>> loaded = new LinkedHashMap<Long, ArrayDeque<Layout>>();
+        int keys = in.readInt();
+        for(int k = 0; k < keys; k++){
+          long key = in.readLong();
+          int count = in.readInt();
+          long cells = (long) rowOf(key) * colOf(key);
+          if(count < 0 || count > CAPACITY || rowOf(key) <= 0 || colOf(key) <= 0 || cells > Integer.MAX_VALUE
+               || minesOf(key) >= cells){
+            return;
+          }
+          int words = (int) ((cells + 63) / 64);
+          ArrayDeque<Layout> queue = new ArrayDeque<Layout>(CAPACITY);
+          for(int n = 0; n < count; n++){
+            long seed = in.readLong();
+            long[] mines = new long[words];
+            for(int w = 0; w < words; w++){
+              mines[w] = in.readLong();
+            }
+            queue.add(new Layout(seed, mines));
+          }
+          loaded.put(key, queue);
+        }
+        queues = loaded;
+      }finally{
+        in.close();
+        // the layouts now only live in memory until close() saves them again
+        if(! file.delete() ){
+          System.err.println("Board pool file not deleted: " + file);
+        }
+      }
+    }catch(IOException e){
+      System.err.println("Board pool not loaded: " + e.getMessage());
+    }
+  }
+
+  /** One mine layout: its seed and which Cells are mined. */
+  public static final class Layout{
+    private final long seed;
+    private final long[] mines;
+
+    private Layout(long seed, long[] mines){
+      this.seed = seed;
+      this.mines = mines;
+    }
+
+    /**
+     * Returns the seed that lays these mines out.
+     * @return The seed of the layout.
+     */
+    public long getSeed(){
+      return seed;
+    }
+
+    /**
+     * Checks if a Cell is mined.
+     * @param index Cell index, row * cols + col.
+     * @return True if the Cell is mined.
+     */
+    public boolean isMined(int index){
+      return (mines[index >>> 6] & (1L << index)) != 0;
+    }
+  }
+
+}
@@ -14,23 +14,8 @@ public class Cell extends JButton implements ActionListener, MouseListener{
   private static final Insets CELL_MARGIN_0 = new Insets(0, 1, 0, 0); // Cell without icon
   private static final Insets CELL_MARGIN_1 = new Insets(2, 2, 2, 2); // Cell with icon
   private static final int MINED = -1;
-  private static final ImageIcon FLAG_ICON = new ImageIcon("images/flag.png");
-  private static final ImageIcon MINE_ICON = new ImageIcon("images/mine.png");
-  private static final ImageIcon FALSE_ICON = new ImageIcon("images/false.png");
   private static final int SIMULCLICK_DELAY = 50; // in milliseconds
   
-  private static final Color[] NUMBER_COLOR = {
-    /*0*/ Color.BLACK,
-    /*1*/ Color.BLUE,
-    /*2*/ Color.GREEN,
-    /*3*/ Color.RED,
-    /*4*/ Color.ORANGE,
-    /*5*/ Color.CYAN,
-    /*6*/ Color.YELLOW,
-    /*7*/ Color.DARK_GRAY,
-    /*8*/ Color.MAGENTA
-  };
-  
   private GameBoard gameBoard;
   private boolean isRevealed;
   private boolean isFlagged;
@@ -135,15 +120,15 @@ public class Cell extends JButton implements ActionListener, MouseListener{
   
   /**
    * Deals with setting icons, including margin.
-   * @param icon ImageIcon to use.
+   * @param icon Icon to use, usually from SpriteAtlas.
    */
-  public void putIcon(ImageIcon icon){
+  public void putIcon(Icon icon){
     setText("");
     setIcon(icon);
     setMargin(CELL_MARGIN_1);
   }
   
-  /** Removes ImageIcon and blanks this Cell, including margin. */
+  /** Removes Icon and blanks this Cell, including margin. */
   public void putBlankIcon(){
     setText(CELL_PADDING);
     setIcon(null);
@@ -155,11 +140,9 @@ public class Cell extends JButton implements ActionListener, MouseListener{
    */
   public void flag(){
     isFlagged = true;
-    putIcon(FLAG_ICON); 
-    gameBoard.totalFlagsCount++;
-    if( isMined() ){
-      gameBoard.flaggedMinesCount++;
-    }
+    putIcon(SpriteAtlas.getIcon(SpriteAtlas.FLAG)); 
+    gameBoard.addFlag( isMined() );
+    gameBoard.cellChanged(row, col);
     gameBoard.notifyViewers();
     gameBoard.judge();
   }
@@ -170,16 +153,14 @@ public class Cell extends JButton implements ActionListener, MouseListener{
   private void deflag(){
     isFlagged = false;
     putBlankIcon();    
-    gameBoard.totalFlagsCount--;
-    if( isMined() ){
-      gameBoard.flaggedMinesCount--;
-    }
+    gameBoard.removeFlag( isMined() );
+    gameBoard.cellChanged(row, col);
     gameBoard.notifyViewers();
   }
   
   /** Opens this Cell by disabling the JButton. */
   public void reveal(){
-    if(gameBoard.isPlaying && isMined()){
+    if(gameBoard.isPlaying() && isMined()){
       setContentAreaFilled(true);
       setBackground( Color.RED );
       revalidate();
@@ -197,25 +178,63 @@ public class Cell extends JButton implements ActionListener, MouseListener{
       // puts icon for false attempts
       if( gameBoard.isGameOver() && isFlagged && !isMined() ){
         deflag();
-        putIcon(FALSE_ICON);
+        putIcon(SpriteAtlas.getIcon(SpriteAtlas.FALSE));
       }else if( isMined() ){
         // show mine if it's a mine not under a flag
         if(!isFlagged){
-          putIcon(MINE_ICON);
+          putIcon(SpriteAtlas.getIcon(SpriteAtlas.MINE));
         }
       }else if( minesCount == 0){
         // expansion if there's no nearby mines
         gameBoard.expand(row, col);
       }else{
-        // show number of surrounding mines
-        setForeground(NUMBER_COLOR[minesCount]);
-        setText("" + minesCount);
+        // show number of surrounding mines, pre-rendered
+        putIcon(SpriteAtlas.getDigitIcon(minesCount));
       }
+      gameBoard.cellChanged(row, col);
       gameBoard.notifyViewers();
       gameBoard.judge();
     }
   }
   
+  /**
+   * Puts this Cell back in a state it had before, to take back or play
+   * again a move of a game not over.
+   * @param state HIDDEN, FLAGGED or the mines count of a revealed Cell,
+   *              as in GameSnapshot.
+   */
+  public void restore(byte state){
+    boolean toFlagged = state == GameSnapshot.FLAGGED;
+    boolean toRevealed = !toFlagged && state != GameSnapshot.HIDDEN;
+    if(isFlagged != toFlagged){
+      isFlagged = toFlagged;
+      if(isFlagged){
+        gameBoard.addFlag( isMined() );
+      }else{
+        gameBoard.removeFlag( isMined() );
+      }
+    }
+    if(isRevealed != toRevealed){
+      isRevealed = toRevealed;
+      setContentAreaFilled(! isRevealed );
+      if(isRevealed){
+        gameBoard.reduceRemainingCells();
+        disableEvents(AWTEvent.MOUSE_EVENT_MASK);
+      }else{
+        gameBoard.increaseRemainingCells();
+        enableEvents(AWTEvent.MOUSE_EVENT_MASK);
+      }
+    }
+    if(isFlagged){
+      putIcon(SpriteAtlas.getIcon(SpriteAtlas.FLAG));
+    }else if(isRevealed && minesCount > 0){
+      putIcon(SpriteAtlas.getDigitIcon(minesCount));
+    }else{
+      putBlankIcon();
+    }
+    gameBoard.cellChanged(row, col);
+  }
+  
   /**
    * Handles events from Timer of clicks.
    * @param e Events from Timer of clicks.
@@ -239,10 +258,13 @@ public class Cell extends JButton implements ActionListener, MouseListener{
     if(rightPressed){
       return;
     }    
-    if(! gameBoard.isPlaying) gameBoard.isPlaying = true;          
+    gameBoard.countClick();
+    gameBoard.recordMove(MoveTelemetry.REVEAL, cursorRow, cursorCol);
+    gameBoard.startPlaying();          
     if(!isFlagged && !isRevealed){
       gameBoard.getCell(cursorRow, cursorCol).reveal();     
     }
+    gameBoard.autoPlay();
   }
   
   /** Handles a lone right click. */
@@ -250,6 +272,8 @@ public class Cell extends JButton implements ActionListener, MouseListener{
     if(leftPressed){
       return;
     }    
+    gameBoard.countClick();
+    gameBoard.recordMove(MoveTelemetry.FLAG, cursorRow, cursorCol);
     if(! isRevealed){
       if(! isFlagged){
         gameBoard.getCell(cursorRow, cursorCol).flag();
@@ -257,11 +281,15 @@ public class Cell extends JButton implements ActionListener, MouseListener{
         gameBoard.getCell(cursorRow, cursorCol).deflag();
       }
     }
+    gameBoard.autoPlay();
   }
   
   /** Handles a simultaneous left click and right click. */
   public void simulReleased(){    
+    gameBoard.countClick();
+    gameBoard.recordMove(MoveTelemetry.CHORD, cursorRow, cursorCol);
     gameBoard.wideReveal(cursorRow, cursorCol); // precondition in that method
+    gameBoard.autoPlay();
   }
   
   /**
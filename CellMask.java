@@ -0,0 +1,40 @@
+/**
+ * Set of Cells of a board, such as the revealed or the flagged ones.
+ * Cells are addressed by index (row * col + column); runs are the
+ * ranges of consecutive Cells of a row that are in the set.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public interface CellMask{
+  /**
+   * Checks if a Cell is in the set.
+   * @param index Cell index.
+   * @return True if the Cell is in the set.
+   */
+  public boolean get(int index);
+
+  /**
+   * Adds a Cell to or removes it from the set.
+   * @param index Cell index.
+   * @param value True to add, false to remove.
+   */
+  public void set(int index, boolean value);
+
+  /** Empties the set. */
+  public void clear();
+
+  /**
+   * Writes the runs of a row as pairs of first and past-the-last col.
+   * @param row Row position.
+   * @param runs Receives the pairs; needs room for col + 1 ints.
+   * @return Number of runs written.
+   */
+  public int getRuns(int row, int[] runs);
+
+  /**
+   * Returns the approximate number of bytes held by the set.
+   * @return The approximate memory usage.
+   */
+  public long getMemoryUsage();
+}
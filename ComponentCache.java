@@ -0,0 +1,90 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of solved frontier components, keyed by pattern hash.
+ * The least recently used entry is evicted when full.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class ComponentCache{
+  private Map<Long, double[]> entries;
+  private long hits;
+  private long misses;
+
+  /**
+   * Starts an empty cache.
+   * @param capacity Maximum number of components kept.
+   * @throws IllegalArgumentException If capacity is not positive.
+   */
+  public ComponentCache(final int capacity){
+    if(capacity <= 0){
+      throw new IllegalArgumentException("Expected positive capacity.");
+    }
+    entries = new LinkedHashMap<Long, double[]>(16, 0.75f, true){
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest){
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the solved component, or null; counts a hit or a miss.
+   * @param hash Pattern hash of the component.
+   * @return Mine probability per Cell of the component, or null.
+   */
+  public double[] get(long hash){
+    double[] result = entries.get(hash);
+    if(result == null){
+      misses++;
+    }else{
+      hits++;
+    }
+    return result;
+  }
+
+  /**
+   * Stores a solved component.
+   * @param hash Pattern hash of the component.
+   * @param result Mine probability per Cell of the component.
+   */
+  public void put(long hash, double[] result){
+    entries.put(hash, result);
+  }
+
+  /**
+   * Returns the number of components kept.
+   * @return The number of components kept.
+   */
+  public int size(){
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of lookups answered from the cache.
+   * @return Hits count.
+   */
+  public long getHits(){
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that had to be solved.
+   * @return Misses count.
+   */
+  public long getMisses(){
+    return misses;
+  }
+
+  /**
+   * Returns hits over lookups, or 0 before any lookup.
+   * @return The hit rate.
+   */
+  public double getHitRate(){
+    long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+
+}
@@ -0,0 +1,383 @@
+import java.util.Arrays;
+
+/**
+ * Computes mine probabilities of the frontier: hidden Cells next to a
+ * revealed number. The frontier is split into independent components,
+ * each hashed by its structure (which number touches which hidden Cell,
+ * and the numbers) so it matches wherever and on whatever topology it
+ * appears, and solved by enumeration only when the ComponentCache has
+ * not seen it before.
+ *
+ * Components are kept between analyses. A move only marks the Cells it
+ * revealed or hid again, in O(1) each; the next analysis drops the
+ * components touching them and collects those Cells again, so it costs
+ * the size of the components that changed, not the size of the board.
+ * Flags change nothing, as they are treated as hidden Cells.
+ * Probabilities are local to each component (the global mine count is
+ * not weighed in).
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class FrontierAnalyzer implements BoardListener{
+  /** Larger components are left unsolved. */
+  public static final int MAX_COMPONENT = 24;
+
+  private BoardModel board;
+  private ZobristHash zobrist;
+  private ComponentCache cache;
+  private Topology topology;
+  // the neighbors of Cell i are neighbors[starts[i]] to neighbors[starts[i + 1] - 1]
+  private int[] starts;
+  private int[] neighbors;
+  private double[] probability;
+  // kept components: Cells of component c are members[c], hidden and numbers
+  private int[] componentOf;
+  private int[][] members;
+  private int[] madeInVisit;
+  private int[] freeIds;
+  private int freeIdsSize;
+  private int componentsSize;
+  // Cells revealed or hidden again since the last analysis
+  private boolean[] wasRevealed;
+  private int[] changed;
+  private boolean[] isChanged;
+  private int changedSize;
+  private boolean isReset;
+  // Cells to collect again in this analysis
+  private int[] pending;
+  private int[] pendingVisit;
+  private int pendingSize;
+  // scratch of one component
+  private int[] visited;
+  private int visit;
+  private int[] hidden;
+  private int hiddenSize;
+  private int[] numbers;
+  private int numbersSize;
+  private int[] queue;
+
+  /**
+   * Attaches an analyzer to the board.
+   * @param board Board to analyze.
+   * @param cache Cache of solved components, may be shared between boards.
+   * @throws IllegalArgumentException If board or cache is null.
+   */
+  public FrontierAnalyzer(BoardModel board, ComponentCache cache){
+    if(board == null || cache == null){
+      throw new IllegalArgumentException("Expected board and cache.");
+    }
+    this.board = board;
+    this.cache = cache;
+    zobrist = new ZobristHash(board);
+    topology = board.getTopology();
+    starts = topology.getStarts();
+    neighbors = topology.getNeighbors();
+    int cells = topology.getCellsCount();
+    probability = new double[cells];
+    visited = new int[cells];
+    hidden = new int[cells];
+    numbers = new int[cells];
+    queue = new int[cells];
+    Arrays.fill(probability, Double.NaN);
+    componentOf = new int[cells];
+    Arrays.fill(componentOf, -1);
+    members = new int[16][];
+    madeInVisit = new int[16];
+    freeIds = new int[16];
+    wasRevealed = new boolean[cells];
+    changed = new int[cells];
+    isChanged = new boolean[cells];
+    pending = new int[cells];
+    pendingVisit = new int[cells];
+    isReset = true; // the board may already be played
+    board.addListener(this);
+  }
+
+  /**
+   * Marks a Cell whose revealed state changed; flags are ignored.
+   * @param index Index of the changed Cell.
+   */
+  @Override
+  public void cellChanged(int index){
+    if(board.isRevealed(index) != wasRevealed[index]){
+      wasRevealed[index] = !wasRevealed[index];
+      if(! isChanged[index] ){
+        isChanged[index] = true;
+        changed[changedSize++] = index;
+      }
+    }
+  }
+
+  /** Every component is dropped on the next analysis. */
+  @Override
+  public void boardReset(){
+    isReset = true;
+  }
+
+  /**
+   * Returns the hash of the visible board.
+   * @return The hash of the visible board.
+   */
+  public long getBoardHash(){
+    return zobrist.getHash();
+  }
+
+  /**
+   * Returns the mine probability of every Cell: 0 is proven safe, 1 is
+   * proven mined, NaN is off the frontier or in a component too large.
+   * The array is reused; only components changed since the last call are
+   * analyzed again.
+   * @return Mine probability per Cell index.
+   */
+  public double[] analyze(){
+    if(!isReset && changedSize == 0){
+      return probability;
+    }
+    visit++;
+    pendingSize = 0;
+    if(isReset){
+      isReset = false;
+      Arrays.fill(probability, Double.NaN);
+      Arrays.fill(componentOf, -1);
+      for(int c = 0; c < componentsSize; c++){
+        members[c] = null;
+      }
+      componentsSize = 0;
+      freeIdsSize = 0;
+      for(int i = 0; i < probability.length; i++){
+        wasRevealed[i] = board.isRevealed(i);
+        addPending(i);
+      }
+    }else{
+      // a changed Cell alters the links of itself and its neighbors only
+      for(int d = 0; d < changedSize; d++){
+        int i = changed[d];
+        dropAround(i);
+        for(int k = starts[i]; k < starts[i + 1]; k++){
+          dropAround(neighbors[k]);
+        }
+      }
+    }
+    for(int d = 0; d < changedSize; d++){
+      isChanged[changed[d]] = false;
+    }
+    changedSize = 0;
+    // pending grows while components met on the way are dropped
+    for(int p = 0; p < pendingSize; p++){
+      int i = pending[p];
+      if(! board.isRevealed(i) ){
+        collectFrom(i);
+      }else if( isNumber(i) ){
+        for(int k = starts[i]; k < starts[i + 1]; k++){
+          collectFrom(neighbors[k]);
+        }
+      }
+    }
+    return probability;
+  }
+
+  /* Collects and answers the component of a hidden frontier Cell, once per analysis. */
+  private void collectFrom(int i){
+    if(visited[i] != visit && !board.isRevealed(i) && hasNumberAround(i)){
+      collectComponent(i);
+      keepComponent();
+      analyzeComponent();
+    }
+  }
+
+  /* Drops the component of a Cell, if any, and collects the Cell again. */
+  private void dropAround(int i){
+    if(componentOf[i] >= 0){
+      dropComponent(componentOf[i]);
+    }
+    addPending(i);
+  }
+
+  /* Forgets a component; its Cells are collected again. */
+  private void dropComponent(int c){
+    for(int i : members[c]){
+      componentOf[i] = -1;
+      probability[i] = Double.NaN;
+      addPending(i);
+    }
+    members[c] = null;
+    freeIds[freeIdsSize++] = c;
+  }
+
+  private void addPending(int i){
+    if(pendingVisit[i] != visit){
+      pendingVisit[i] = visit;
+      pending[pendingSize++] = i;
+    }
+  }
+
+  /* Gives the collected component an id and remembers its Cells. */
+  private void keepComponent(){
+    int c;
+    if(freeIdsSize > 0){
+      c = freeIds[--freeIdsSize];
+    }else{
+      if(componentsSize == members.length){
+        members = Arrays.copyOf(members, 2 * componentsSize);
+        madeInVisit = Arrays.copyOf(madeInVisit, 2 * componentsSize);
+        freeIds = Arrays.copyOf(freeIds, 2 * componentsSize);
+      }
+      c = componentsSize++;
+    }
+    int[] cells = Arrays.copyOf(hidden, hiddenSize + numbersSize);
+    System.arraycopy(numbers, 0, cells, hiddenSize, numbersSize);
+    for(int i : cells){
+      componentOf[i] = c;
+    }
+    members[c] = cells;
+    madeInVisit[c] = visit;
+  }
+
+  /* Gathers the hidden Cells and numbers linked to start, without recursion. */
+  private void collectComponent(int start){
+    hiddenSize = 0;
+    numbersSize = 0;
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    visited[start] = visit;
+    while(head < tail){
+      int i = queue[head++];
+      // a component kept from before that this one grew into
+      if(componentOf[i] >= 0 && madeInVisit[componentOf[i]] != visit){
+        dropComponent(componentOf[i]);
+      }
+      if( board.isRevealed(i) ){
+        numbers[numbersSize++] = i;
+      }else{
+        hidden[hiddenSize++] = i;
+      }
+      for(int k = starts[i]; k < starts[i + 1]; k++){
+        int n = neighbors[k];
+        if(visited[n] == visit){
+          continue;
+        }
+        // hidden Cells link through numbers, numbers through hidden Cells
+        boolean link = board.isRevealed(i) ? !board.isRevealed(n) : isNumber(n);
+        if(link){
+          visited[n] = visit;
+          queue[tail++] = n;
+        }
+      }
+    }
+    Arrays.sort(hidden, 0, hiddenSize);
+    Arrays.sort(numbers, 0, numbersSize);
+  }
+
+  /* Answers the collected component from the cache, solving it on a miss. */
+  private void analyzeComponent(){
+    // number j touching the k-th hidden Cell hashes as key (j, k); its count as (j, -1)
+    long hash = ZobristHash.relativeKey(-1, hiddenSize, numbersSize);
+    for(int j = 0; j < numbersSize; j++){
+      int state = ZobristHash.REVEALED + board.getMinesCount(numbers[j]);
+      hash ^= ZobristHash.relativeKey(j, -1, state);
+      // hidden is sorted, so each neighbor finds its k without a scan
+      for(int n = starts[numbers[j]]; n < starts[numbers[j] + 1]; n++){
+        int k = Arrays.binarySearch(hidden, 0, hiddenSize, neighbors[n]);
+        if(k >= 0){
+          hash ^= ZobristHash.relativeKey(j, k, ZobristHash.HIDDEN);
+        }
+      }
+    }
+    double[] result = cache.get(hash);
+    if(result == null){
+      result = solveComponent();
+      cache.put(hash, result);
+    }
+    for(int k = 0; k < hiddenSize; k++){
+      probability[hidden[k]] = result[k];
+    }
+  }
+
+  /* Enumerates every consistent layout of the collected component. */
+  private double[] solveComponent(){
+    double[] result = new double[hiddenSize];
+    if(hiddenSize > MAX_COMPONENT){
+      Arrays.fill(result, Double.NaN);
+      return result;
+    }
+    // which numbers each hidden Cell touches
+    int[][] touches = new int[hiddenSize][];
+    int[] need = new int[numbersSize];
+    int[] open = new int[numbersSize];
+    for(int j = 0; j < numbersSize; j++){
+      need[j] = board.getMinesCount(numbers[j]);
+    }
+    for(int k = 0; k < hiddenSize; k++){
+      int[] list = new int[numbersSize];
+      int size = 0;
+      for(int j = 0; j < numbersSize; j++){
+        if( topology.isNeighbor(hidden[k], numbers[j]) ){
+          list[size++] = j;
+          open[j]++;
+        }
+      }
+      touches[k] = Arrays.copyOf(list, size);
+    }
+    long[] minesAt = new long[hiddenSize];
+    boolean[] assignment = new boolean[hiddenSize];
+    long layouts = enumerate(0, touches, need, open, assignment, minesAt);
+    for(int k = 0; k < hiddenSize; k++){
+      result[k] = layouts == 0 ? Double.NaN : (double) minesAt[k] / layouts;
+    }
+    return result;
+  }
+
+  /*
+   * Assigns hidden Cell k onwards; need[j] counts mines still owed to
+   * number j and open[j] its Cells still unassigned. Returns layouts found.
+   */
+  private long enumerate(int k, int[][] touches, int[] need, int[] open, boolean[] assignment,
+                         long[] minesAt){
+    if(k == hiddenSize){
+      for(int k2 = 0; k2 < hiddenSize; k2++){
+        if(assignment[k2]){
+          minesAt[k2]++;
+        }
+      }
+      return 1;
+    }
+    long layouts = 0;
+    for(int mine = 0; mine <= 1; mine++){
+      boolean isConsistent = true;
+      for(int j : touches[k]){
+        need[j] -= mine;
+        open[j]--;
+        if(need[j] < 0 || need[j] > open[j]){
+          isConsistent = false;
+        }
+      }
+      if(isConsistent){
+        assignment[k] = mine == 1;
+        layouts += enumerate(k + 1, touches, need, open, assignment, minesAt);
+      }
+      for(int j : touches[k]){
+        need[j] += mine;
+        open[j]++;
+      }
+    }
+    return layouts;
+  }
+
+  /* Checks if a revealed number touches the Cell. */
+  private boolean hasNumberAround(int index){
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      if( isNumber(neighbors[k]) ){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /* Checks if Cell is a revealed, non-mine Cell. */
+  private boolean isNumber(int index){
+    return board.isRevealed(index) && !board.isMined(index);
+  }
+
+}
@@ -1,8 +1,13 @@
 import javax.swing.*;
+import javax.swing.Timer;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.util.*; // List, Random
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Keeps and updates data of the game.
@@ -10,7 +15,7 @@ import java.util.ArrayList;
  * @author Daniel Rolandi
  * @version 5/17/2013
  */
-public class GameBoard{
+public class GameBoard implements SnapshotSource{
   private static final int ROW_MIN = 9;
   private static final int ROW_MAX = 30;
   private static final int COL_MIN = 9;
@@ -32,22 +37,60 @@ public class GameBoard{
   private static final int MINES_2 = 99;
   // default difficulty to start the game
   private static final Difficulty DEFAULT_DIFFICULTY = Difficulty.BEGINNER;
+  private static final int BEST_TIMES_COUNT = 10;
   
   private JFrame frame;
   private int row;
   private int col;
+  // the Minefield is drawn as a square grid, so only Topology.square fits
+  private Topology topology;
+  private int[] starts;
+  private int[] neighbors;
   private int totalMinesCount;  
   private int remainingCells;
   private Cell[][] gameCell;
   private JPanel minefield;
   private boolean isGameOver;
   private Difficulty difficulty;
+  // the difficulty the current board was built with; difficulty may have changed since
+  private Difficulty gameDifficulty;
   private List<GameViewer> viewers;
+  // fast play: revealed Cells whose neighborhood changed, as row * col + col
+  private boolean isFastPlay;
+  private boolean isBatching;
+  private int[] pending;
+  private boolean[] isPending;
+  private int pendingSize;
+  // chord press: drawn over the minefield instead of changing the Cells
+  private PressOverlay pressOverlay;
+  // visible Cells by row; a row shared with the last snapshot is copied before writing
+  private byte[][] visibleRows;
+  private boolean[] isRowShared;
+  private long version;
+  private volatile GameSnapshot snapshot;
   
-  public boolean isPlaying;
-  public int totalFlagsCount;
-  public int flaggedMinesCount;
-  public double timeElapsed;
+  private boolean isPlaying;
+  private int totalFlagsCount;
+  private int flaggedMinesCount;
+  private double timeElapsed;
+  private int clicksCount;
+  private long seed;
+  private long startNanos;
+  private ScoreStore scoreStore;
+  private BoardPool boardPool;
+  private MoveTelemetry telemetry;
+  private BoardPool.Layout layout;
+  private SpectatorServer spectatorServer;
+  private Thread spectatorThread;
+  // undo: the Cells changed by each move, with their visible state before and after
+  private List<Move> undoList;
+  private List<Move> redoList;
+  private boolean isMoveOpen;
+  private boolean isRestoring;
+  private int[] moveCells;
+  private byte[] moveBefore;
+  private byte[] moveAfter;
+  private int moveSize;
   
   /**
    * Starts the GameBoard (underlying model, data center).
@@ -65,6 +108,11 @@ public class GameBoard{
     this.frame = frame;
     this.minefield = minefield;
     viewers = new ArrayList<GameViewer>();
+    undoList = new ArrayList<Move>();
+    redoList = new ArrayList<Move>();
+    pressOverlay = new PressOverlay();
+    frame.setGlassPane(pressOverlay);
+    pressOverlay.setVisible(true);
     
     // for now, default with Beginner difficulty
     // in the future, make it possible to load previous settings
@@ -85,19 +133,405 @@ public class GameBoard{
   
   /** Notifies all viewers to update themselves. */
   public void notifyViewers(){
+    if(isBatching){
+      return;
+    }
+    publishSnapshot();
     for(GameViewer v : viewers){
       v.update();
     }
   }
   
   /**
-   * Sets difficulty of the game.
+   * Returns the latest snapshot; safe to call from any thread.
+   * @return The latest published snapshot.
+   */
+  @Override
+  public GameSnapshot getSnapshot(){
+    return snapshot;
+  }
+  
+  /*
+   * Publishes the current state. Costs O(rows): rows are handed over as
+   * they are and only copied by the next write to them.
+   */
+  private void publishSnapshot(){
+    version++;
+    Arrays.fill(isRowShared, true);
+    snapshot = new GameSnapshot(version, visibleRows.clone(), totalMinesCount, totalFlagsCount,
+                                timeElapsed, isPlaying, isGameOver);
+  }
+  
+  /**
+   * Returns true once the first Cell has been revealed and until game over.
+   * @return True if the game is being played.
+   */
+  public boolean isPlaying(){
+    return isPlaying;
+  }
+  
+  /** Marks the game as being played, from the first reveal on. */
+  public void startPlaying(){
+    if(!isPlaying && !isGameOver){
+      isPlaying = true;
+      startNanos = System.nanoTime();
+      notifyViewers();
+    }
+  }
+  
+  /**
+   * Returns the seconds played.
+   * @return The seconds played.
+   */
+  public double getTimeElapsed(){
+    return timeElapsed;
+  }
+  
+  /**
+   * Adds played time; called from the timer on the event thread.
+   * @param seconds Seconds to add.
+   */
+  public void addTimeElapsed(double seconds){
+    timeElapsed += seconds;
+    publishSnapshot();
+  }
+  
+  /** Counts a click of the player, for the efficiency shown at victory. */
+  public void countClick(){
+    clicksCount++;
+  }
+  
+  /**
+   * Counts a flag put on a Cell.
+   * @param onMine True if the Cell is mined.
+   */
+  public void addFlag(boolean onMine){
+    totalFlagsCount++;
+    if(onMine){
+      flaggedMinesCount++;
+    }
+  }
+  
+  /**
+   * Counts a flag removed from a Cell.
+   * @param onMine True if the Cell is mined.
+   */
+  public void removeFlag(boolean onMine){
+    totalFlagsCount--;
+    if(onMine){
+      flaggedMinesCount--;
+    }
+  }
+  
+  /**
+   * Sets where won games are recorded.
+   * @param store Score store, or null to record nothing.
+   */
+  public void setScoreStore(ScoreStore store){
+    scoreStore = store;
+  }
+  
+  /**
+   * Sets where new games take their mine layouts from; the three
+   * difficulties are kept ready in it.
+   * @param pool Board pool, or null to lay mines out on each new game.
+   */
+  public void setBoardPool(BoardPool pool){
+    boardPool = pool;
+    if(pool != null){
+      pool.prepare(ROW_0, COL_0, MINES_0);
+      pool.prepare(ROW_1, COL_1, MINES_1);
+      pool.prepare(ROW_2, COL_2, MINES_2);
+    }
+  }
+  
+  /**
+   * Sets where the moves of every game are recorded, from the current
+   * game on.
+   * @param telemetry Move telemetry, or null to record nothing.
+   */
+  public void setTelemetry(MoveTelemetry telemetry){
+    this.telemetry = telemetry;
+    if(telemetry != null){
+      telemetry.startGame(seed, row, col, totalMinesCount);
+    }
+  }
+  
+  /**
+   * Records a move of the player before it is applied, if recording, and
+   * starts collecting the Cells it changes for undo.
+   * @param type REVEAL, FLAG or CHORD of MoveTelemetry.
+   * @param row Row position of the move.
+   * @param col Col position of the move.
+   */
+  public void recordMove(byte type, int row, int col){
+    if(telemetry != null){
+      telemetry.recordMove(type, row * this.col + col);
+    }
+    endMove();
+    isMoveOpen = true;
+  }
+  
+  /* Keeps the open move if it changed anything; a new move ends any redo. */
+  private void endMove(){
+    if(isMoveOpen && moveSize > 0){
+      undoList.add(new Move(Arrays.copyOf(moveCells, moveSize), Arrays.copyOf(moveBefore, moveSize),
+                            Arrays.copyOf(moveAfter, moveSize)));
+      redoList.clear();
+    }
+    isMoveOpen = false;
+    moveSize = 0;
+  }
+  
+  /**
+   * Takes back the last move, with the flags and chords fast play made
+   * after it. Costs O(Cells changed); a move that ended the game cannot
+   * be taken back.
+   */
+  public void undo(){
+    endMove();
+    if(isGameOver || undoList.isEmpty()){
+      return;
+    }
+    Move move = undoList.remove(undoList.size() - 1);
+    restore(move, false);
+    redoList.add(move);
+  }
+  
+  /** Plays again the last move taken back. */
+  public void redo(){
+    endMove();
+    if(isGameOver || redoList.isEmpty()){
+      return;
+    }
+    Move move = redoList.remove(redoList.size() - 1);
+    restore(move, true);
+    undoList.add(move);
+  }
+  
+  /* Puts every Cell of a move in its state after or before it, as one batch. */
+  private void restore(Move move, boolean isForward){
+    isRestoring = true;
+    isBatching = true;
+    try{
+      if(isForward){
+        for(int k = 0; k < move.cells.length; k++){
+          gameCell[move.cells[k] / col][move.cells[k] % col].restore(move.after[k]);
+        }
+      }else{
+        for(int k = move.cells.length - 1; k >= 0; k--){
+          gameCell[move.cells[k] / col][move.cells[k] % col].restore(move.before[k]);
+        }
+      }
+    }finally{
+      isRestoring = false;
+      isBatching = false;
+    }
+    notifyViewers();
+  }
+  
+  /** Shows the best times of the current difficulty. */
+  public void showBestTimes(){
+    if(scoreStore == null){
+      JOptionPane.showMessageDialog(frame, "Best times are not available.");
+      return;
+    }
+    StringBuilder message = new StringBuilder();
+    try{
+      int place = 1;
+      for(Score score : scoreStore.top(difficulty, BEST_TIMES_COUNT)){
+        message.append(place++).append(".  ").append(score).append('\n');
+      }
+    }catch(IOException e){
+      message.append("Could not read best times: ").append(e.getMessage()).append('\n');
+    }
+    int count = scoreStore.count(difficulty);
+    if(count == 0){
+      message.append("No game won yet.");
+    }else{
+      message.append(String.format("%nGames won: %d, median: %.3f s", count,
+                                   scoreStore.percentile(difficulty, 0.5) / 1e9));
+    }
+    JOptionPane.showMessageDialog(frame, message.toString(), "Best Times", JOptionPane.PLAIN_MESSAGE);
+  }
+  
+  /**
+   * Sets difficulty of the next game; the current board keeps its own.
    * @param d Desired difficulty.
    */
   public void setDifficulty(Difficulty d){
     difficulty = d;
   }
   
+  /**
+   * Turns fast play on or off. While on, trivial deductions are applied
+   * after every move: flags where the hidden neighbors must all be mines,
+   * and chords where the flags already match the number.
+   * @param on True to turn fast play on.
+   */
+  public void setFastPlay(boolean on){
+    isFastPlay = on;
+    if(isFastPlay){
+      for(int r = 0; r < row; r++){
+        for(int c = 0; c < col; c++){
+          if( gameCell[r][c].isRevealed() ){
+            addPending(r * col + c);
+          }
+        }
+      }
+      autoPlay();
+    }
+  }
+  
+  /**
+   * Lets others watch this game live, or stops streaming it. Spectators
+   * connect to SpectatorServer.DEFAULT_PORT on this machine; they are
+   * served on their own thread from published snapshots. The previous
+   * server has released the port before a new one binds it.
+   * @param on True to stream this game.
+   */
+  public void setSpectatorsAllowed(boolean on){
+    if(spectatorThread != null){
+      spectatorServer.close();
+      try{
+        spectatorThread.join();
+      }catch(InterruptedException e){
+        Thread.currentThread().interrupt();
+      }
+      spectatorServer = null;
+      spectatorThread = null;
+    }
+    if(on){
+      final SpectatorServer server = new SpectatorServer(this);
+      spectatorServer = server;
+      spectatorThread = new Thread(new Runnable(){
+        public void run(){
+          try{
+            server.serve(SpectatorServer.DEFAULT_PORT);
+          }catch(IOException e){
+            System.err.println("Spectators disabled: " + e.getMessage());
+          }
+        }
+      }, "Spectators");
+      spectatorThread.setDaemon(true);
+      spectatorThread.start();
+    }
+  }
+  
+  /**
+   * Records the visible state of the changed Cell for snapshots and
+   * remembers it, so fast play looks around it.
+   * @param row Row position of the changed Cell.
+   * @param col Col position of the changed Cell.
+   */
+  public void cellChanged(int row, int col){
+    Cell cell = gameCell[row][col];
+    byte state;
+    if( cell.isFlagged() ){
+      state = GameSnapshot.FLAGGED;
+    }else if( cell.isRevealed() ){
+      state = (byte) cell.getMinesCount();
+    }else{
+      state = GameSnapshot.HIDDEN;
+    }
+    int i = row * this.col + col;
+    if(!isRestoring && !isGameOver){
+      if(isMoveOpen){
+        moveCells[moveSize] = i;
+        moveBefore[moveSize] = visibleRows[row][col];
+        moveAfter[moveSize] = state;
+        moveSize++;
+      }else{
+        // changed outside any move: the history no longer matches the board
+        undoList.clear();
+        redoList.clear();
+      }
+    }
+    if(isRowShared[row]){
+      visibleRows[row] = visibleRows[row].clone();
+      isRowShared[row] = false;
+    }
+    visibleRows[row][col] = state;
+    
+    if(!isFastPlay || isRestoring){
+      return;
+    }
+    if( gameCell[row][col].isRevealed() ){
+      addPending(i);
+    }
+    for(int k = starts[i]; k < starts[i + 1]; k++){
+      int n = neighbors[k];
+      if( gameCell[n / this.col][n % this.col].isRevealed() ){
+        addPending(n);
+      }
+    }
+  }
+  
+  /* Queues a revealed Cell for fast play unless already queued. */
+  private void addPending(int i){
+    if(! isPending[i] ){
+      isPending[i] = true;
+      pending[pendingSize++] = i;
+    }
+  }
+  
+  /**
+   * Runs fast play to a fixed point as one batch: viewers are notified
+   * once at the end and Swing coalesces the repaints of every Cell.
+   */
+  public void autoPlay(){
+    if(!isFastPlay || isGameOver){
+      return;
+    }
+    Cell[][] cells = gameCell;
+    isBatching = true;
+    try{
+      // stops if the game ended (and possibly restarted) meanwhile
+      while(pendingSize > 0 && !isGameOver && cells == gameCell){
+        int i = pending[--pendingSize];
+        isPending[i] = false;
+        autoPlayCell(i / col, i % col);
+      }
+    }finally{
+      isBatching = false;
+    }
+    if(cells == gameCell){
+      notifyViewers();
+    }
+  }
+  
+  /* Flags or chords around one revealed number if it is trivial. */
+  private void autoPlayCell(int row, int col){
+    Cell cell = gameCell[row][col];
+    if(cell.isMined() || cell.getMinesCount() == 0){
+      return;
+    }
+    int i = row * this.col + col;
+    int countFlag = 0;
+    int countHidden = 0;
+    for(int k = starts[i]; k < starts[i + 1]; k++){
+      Cell neighbor = gameCell[neighbors[k] / this.col][neighbors[k] % this.col];
+      if( neighbor.isFlagged() ){
+        countFlag++;
+      }else if(! neighbor.isRevealed() ){
+        countHidden++;
+      }
+    }
+    if(countHidden == 0){
+      return;
+    }
+    if(countFlag == cell.getMinesCount()){
+      wideReveal(row, col);
+    }else if(countFlag + countHidden == cell.getMinesCount()){
+      for(int k = starts[i]; k < starts[i + 1]; k++){
+        Cell neighbor = gameCell[neighbors[k] / this.col][neighbors[k] % this.col];
+        if(!neighbor.isFlagged() && !neighbor.isRevealed() && !isGameOver){
+          neighbor.flag();
+        }
+      }
+    }
+  }
+  
   /**
    * Returns total mines count.
    * @return Total mines count.
@@ -137,12 +571,21 @@ public class GameBoard{
   
   /** Fills the minefield with randomized mines, also assigns numbers. */
   private void fillMinefield(){
+    if(layout != null){
+      // taken from the pool, already laid out from the seed
+      for(int i = 0; i < row * col; i++){
+        if( layout.isMined(i) ){
+          setCellMined(i / col, i % col);
+        }
+      }
+      return;
+    }
     int[] numberTable = new int[row * col];
     for(int i = 0; i < numberTable.length; i++){
       numberTable[i] = i;
     }
-    // pick random number
-    Random random = new Random();
+    // pick random number, replayable from the seed
+    Random random = new Random(seed);
     int upperBound = numberTable.length;
     for(int m = 0; m < totalMinesCount; m++){
       int pickIndex = random.nextInt(upperBound);
@@ -171,38 +614,13 @@ public class GameBoard{
     return gameCell[row][col];
   }
   
-  /**
-   * Returns a List of Cells that surround this row,col position.
-   */
-  private List<Cell> getNeighborCells(int row, int col){
-    List<Cell> neighborList = new ArrayList<Cell>(8);
-    
-    if( isValidCell(row-1, col-1) ) // top-left
-      neighborList.add(gameCell[row-1][col-1]);
-    if( isValidCell(row-1, col  ) ) // top
-      neighborList.add(gameCell[row-1][col  ]);
-    if( isValidCell(row-1, col+1) ) // top-right
-      neighborList.add(gameCell[row-1][col+1]);
-    if( isValidCell(row  , col-1) ) // left
-      neighborList.add(gameCell[row  ][col-1]);
-    if( isValidCell(row  , col+1) ) // right
-      neighborList.add(gameCell[row  ][col+1]);
-    if( isValidCell(row+1, col-1) ) // bot-left
-      neighborList.add(gameCell[row+1][col-1]);
-    if( isValidCell(row+1, col  ) ) // bot
-      neighborList.add(gameCell[row+1][col  ]);
-    if( isValidCell(row+1, col+1) ) // bot-right
-      neighborList.add(gameCell[row+1][col+1]);
-    
-    return neighborList;
-  }
-  
   /** Lays down a mine and increment neighbor Cells. */
   private void setCellMined(int row, int col){
     gameCell[row][col].setMined();
     
-    List<Cell> neighborList = getNeighborCells(row, col);
-    for(Cell neighbor : neighborList){
+    int i = row * this.col + col;
+    for(int k = starts[i]; k < starts[i + 1]; k++){
+      Cell neighbor = gameCell[neighbors[k] / this.col][neighbors[k] % this.col];
       if(! neighbor.isMined()){
         neighbor.addMineCount();
       }
@@ -251,6 +669,17 @@ public class GameBoard{
     remainingCells -= 1;
   }    
   
+  /**
+   * Adds 1 to remaining Cells, for a Cell hidden again by undo.
+   * @throws IllegalStateException If this causes remainingCells to be > Cells.
+   */
+  public void increaseRemainingCells(){
+    if(remainingCells + 1 > row * col){
+      throw new IllegalStateException("Too many increases.");
+    }
+    remainingCells += 1;
+  }
+  
   /**
    * Special algorithm in favor of player to expand free Cells.
    * @param row Row position to start expand.
@@ -262,8 +691,12 @@ public class GameBoard{
       throw new IllegalArgumentException("Out of game bounds.");
     }
     
-    List<Cell> neighborList = getNeighborCells(row, col);
-    for(Cell neighbor : neighborList){
+    Cell[][] cells = gameCell;
+    int i = row * this.col + col;
+    int end = starts[i + 1];
+    // stops if a reveal ended the game and a new one was started meanwhile
+    for(int k = starts[i]; k < end && cells == gameCell; k++){
+      Cell neighbor = cells[neighbors[k] / this.col][neighbors[k] % this.col];
       if(!neighbor.isRevealed() && !neighbor.isFlagged()){
         neighbor.reveal();
       }
@@ -291,15 +724,19 @@ public class GameBoard{
     
     // counting number of flags
     // assumption here is any revealed Cell is never flagged
+    int i = row * this.col + col;
     int countFlag = 0;    
-    List<Cell> neighborList = getNeighborCells(row, col);
-    for(Cell neighbor : neighborList){
-      if(neighbor.isFlagged()){
+    for(int k = starts[i]; k < starts[i + 1]; k++){
+      if( gameCell[neighbors[k] / this.col][neighbors[k] % this.col].isFlagged() ){
         countFlag++;
       }
     }      
     if(countFlag == gameCell[row][col].getMinesCount()){
-      for(Cell neighbor : neighborList){
+      Cell[][] cells = gameCell;
+      int end = starts[i + 1];
+      // stops if a reveal ended the game and a new one was started meanwhile
+      for(int k = starts[i]; k < end && cells == gameCell; k++){
+        Cell neighbor = cells[neighbors[k] / this.col][neighbors[k] % this.col];
         if(!neighbor.isRevealed() && !neighbor.isFlagged()){
           neighbor.reveal();
         }
@@ -317,14 +754,7 @@ public class GameBoard{
     if(! isValidCell(row, col) ){
       throw new IllegalArgumentException("Out of game bounds.");
     }
-    List<Cell> neighborList = getNeighborCells(row, col);
-    // special, because it must depress itself
-    neighborList.add(gameCell[row][col]);
-    for(Cell neighbor : neighborList){
-        if(!neighbor.isRevealed() && !neighbor.isFlagged()){
-          neighbor.setContentAreaFilled(false);
-        }
-      }
+    pressOverlay.press(row * this.col + col);
   }
   
   /**
@@ -337,19 +767,15 @@ public class GameBoard{
     if(! isValidCell(row, col) ){
       throw new IllegalArgumentException("Out of game bounds.");
     }
-    List<Cell> neighborList = getNeighborCells(row, col);
-    // special, because it must depress itself
-    neighborList.add(gameCell[row][col]);
-    for(Cell neighbor : neighborList){
-        if(!neighbor.isRevealed() && !neighbor.isFlagged()){
-          neighbor.setContentAreaFilled(true);
-        }
-      }
+    if(pressOverlay.requested == row * this.col + col){
+      pressOverlay.press(-1);
+    }
   }
   
   /** Handles creating a new game, also resets. */
   public void newGame(){
-    switch(difficulty){
+    gameDifficulty = difficulty;
+    switch(gameDifficulty){
       case BEGINNER:
         row = ROW_0;
         col = COL_0;
@@ -373,7 +799,41 @@ public class GameBoard{
     totalFlagsCount = 0;
     flaggedMinesCount = 0;
     timeElapsed = 0.0;
+    clicksCount = 0;
+    if(boardPool != null){
+      layout = boardPool.take(row, col, totalMinesCount);
+      seed = layout.getSeed();
+    }else{
+      layout = null;
+      seed = new Random().nextLong();
+    }
+    if(telemetry != null){
+      telemetry.startGame(seed, row, col, totalMinesCount);
+    }
     gameCell = new Cell[row][col];
+    if(topology == null || topology.getRow() != row || topology.getCol() != col){
+      topology = Topology.square(row, col);
+      starts = topology.getStarts();
+      neighbors = topology.getNeighbors();
+    }
+    isBatching = false;
+    pending = new int[row * col];
+    isPending = new boolean[row * col];
+    pendingSize = 0;
+    visibleRows = new byte[row][col];
+    for(byte[] r : visibleRows){
+      Arrays.fill(r, GameSnapshot.HIDDEN);
+    }
+    isRowShared = new boolean[row];
+    undoList.clear();
+    redoList.clear();
+    isMoveOpen = false;
+    // a move changes each Cell at most twice: a flag taken off, then put back by fast play
+    moveCells = new int[2 * row * col];
+    moveBefore = new byte[2 * row * col];
+    moveAfter = new byte[2 * row * col];
+    moveSize = 0;
+    pressOverlay.reset();
         
     minefield.setLayout(new GridLayout(row, col));
     notifyViewers();
@@ -400,6 +860,10 @@ public class GameBoard{
   public void victory(){
     isGameOver = true;
     isPlaying = false;
+    isBatching = false; // a finished game ends any fast play batch
+    if(telemetry != null){
+      telemetry.endGame(MoveTelemetry.WON);
+    }
     notifyViewers();
     for(int r = 0; r < row; r++){
       for(int c = 0; c < col; c++){
@@ -409,7 +873,13 @@ public class GameBoard{
       }
     }
     String timeElapsedFormatted = String.format("%.2f", timeElapsed);
-    int answer = JOptionPane.showConfirmDialog(frame, "You won in " + timeElapsedFormatted + " seconds!\nPlay again?",
+    int bbbv = BoardMetrics.compute(getMines(), row, col).get3BV();
+    String metricsFormatted = String.format("3BV: %d, 3BV/s: %.2f, Efficiency: %d%%", bbbv,
+                                            timeElapsed > 0 ? bbbv / timeElapsed : 0.0,
+                                            clicksCount > 0 ? 100 * bbbv / clicksCount : 0);
+    String rankFormatted = recordScore(bbbv);
+    int answer = JOptionPane.showConfirmDialog(frame, "You won in " + timeElapsedFormatted + " seconds!\n"
+                                                 + metricsFormatted + "\n" + rankFormatted + "Play again?",
                                                "Victory!", JOptionPane.YES_NO_OPTION);
     if(answer == JOptionPane.YES_OPTION){
       newGame();
@@ -418,10 +888,46 @@ public class GameBoard{
     }
   }
   
+  /*
+   * Records the won game under the difficulty its board was built with;
+   * returns its rank as a line, or "" if not recorded.
+   */
+  private String recordScore(int bbbv){
+    if(scoreStore == null){
+      return "";
+    }
+    long timeNanos = System.nanoTime() - startNanos;
+    try{
+      scoreStore.add(new Score(gameDifficulty, seed, timeNanos, bbbv, System.currentTimeMillis()));
+    }catch(IOException e){
+      return "Could not record the game: " + e.getMessage() + "\n";
+    }
+    return "Rank: " + (scoreStore.rank(gameDifficulty, timeNanos) + 1) + " of " + scoreStore.count(gameDifficulty)
+      + "\n";
+  }
+  
+  /* Returns the mine layout as a bitset of row * col + col. */
+  private long[] getMines(){
+    long[] mines = new long[(row * col + 63) / 64];
+    for(int r = 0; r < row; r++){
+      for(int c = 0; c < col; c++){
+        if( gameCell[r][c].isMined() ){
+          int i = r * col + c;
+          mines[i >>> 6] |= 1L << i;
+        }
+      }
+    }
+    return mines;
+  }
+  
   /** Handles defeated game. */
   public void defeat(){
     isGameOver = true;
     isPlaying = false;
+    isBatching = false; // a finished game ends any fast play batch
+    if(telemetry != null){
+      telemetry.endGame(MoveTelemetry.LOST);
+    }
     notifyViewers();
     for(int r = 0; r < row; r++){
       for(int c = 0; c < col; c++){
@@ -438,4 +944,114 @@ public class GameBoard{
     }
   }
   
+  /** What one move changed: Cells, with their visible state before and after. */
+  private static class Move{
+    private final int[] cells;
+    private final byte[] before;
+    private final byte[] after;
+    
+    private Move(int[] cells, byte[] before, byte[] after){
+      this.cells = cells;
+      this.before = before;
+      this.after = after;
+    }
+  }
+  
+  /**
+   * Shows the chord press as one overlay: the hidden Cells around the
+   * pressed one are painted flat over the minefield. However fast the
+   * mouse sweeps, the overlay is repainted at most once per frame, and
+   * only around the old and the new pressed Cell.
+   */
+  private class PressOverlay extends JComponent implements ActionListener{
+    private static final long serialVersionUID = 1L;
+    private static final int FRAME_MILLIS = 16;
+    
+    private Timer frameTimer;
+    // Cell index asked for and Cell index on screen, -1 for none
+    private int requested;
+    private int painted;
+    // position of the minefield in this overlay
+    private int originX;
+    private int originY;
+    
+    private PressOverlay(){
+      setOpaque(false);
+      frameTimer = new Timer(FRAME_MILLIS, this);
+      frameTimer.setRepeats(false);
+      requested = -1;
+      painted = -1;
+    }
+    
+    /* Moves the press to a Cell index, or -1; shown on the next frame. */
+    private void press(int index){
+      requested = index;
+      if(! frameTimer.isRunning() ){
+        frameTimer.start();
+      }
+    }
+    
+    /* Forgets the press, for a minefield about to be rebuilt. */
+    private void reset(){
+      frameTimer.stop();
+      requested = -1;
+      painted = -1;
+      repaint();
+    }
+    
+    /** Shows the latest press. */
+    @Override
+    public void actionPerformed(ActionEvent e){
+      if(requested == painted){
+        return;
+      }
+      locate();
+      repaintAround(painted);
+      painted = requested;
+      repaintAround(painted);
+    }
+    
+    /* Marks the 3x3 grid around a Cell to be painted again. */
+    private void repaintAround(int index){
+      if(index < 0){
+        return;
+      }
+      Cell cell = gameCell[index / col][index % col];
+      repaint(originX + cell.getX() - cell.getWidth(), originY + cell.getY() - cell.getHeight(),
+              3 * cell.getWidth(), 3 * cell.getHeight());
+    }
+    
+    /* Adds up the offsets from the minefield to this overlay. */
+    private void locate(){
+      originX = 0;
+      originY = 0;
+      for(Component c = minefield; c != null && c != getParent(); c = c.getParent()){
+        originX += c.getX();
+        originY += c.getY();
+      }
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g){
+      if(painted < 0){
+        return;
+      }
+      locate();
+      g.setColor( minefield.getBackground() );
+      paintPressed(g, painted);
+      for(int k = starts[painted]; k < starts[painted + 1]; k++){
+        paintPressed(g, neighbors[k]);
+      }
+    }
+    
+    /* Paints a hidden Cell flat, inside its border. */
+    private void paintPressed(Graphics g, int index){
+      Cell cell = gameCell[index / col][index % col];
+      if(!cell.isRevealed() && !cell.isFlagged()){
+        g.fillRect(originX + cell.getX() + 1, originY + cell.getY() + 1,
+                   cell.getWidth() - 2, cell.getHeight() - 2);
+      }
+    }
+  }
+  
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Headless server hosting many games over a line-based TCP protocol.
+ * One selector thread owns every BoardModel, so moves on a game are
+ * always serialized without locks.
+ *
+ * Protocol, one request per line, one reply line per request:
+ *   NEW rows cols mines [seed [topology]]  -> OK id
+ *   REVEAL id row col           -> OK changed state
+ *   FLAG id row col             -> OK changed state
+ *   CHORD id row col            -> OK changed state
+ *   SHOW id                     -> OK rows separated by '/'
+ *   QUIT id                     -> OK
+ * where state is PLAYING, WON or LOST, and topology is SQUARE (default),
+ * TORUS, HEX or KNIGHT. Errors reply ERR message.
+ *
+ * Boards are at most MAX_SIDE Cells a side and all games together at
+ * most MAX_TOTAL_CELLS, so no request can exhaust memory. A client that
+ * does not read its replies stops being read once OUTPUT_LIMIT bytes of
+ * them are pending.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class GameServer{
+  public static final int DEFAULT_PORT = 4567;
+  public static final int MAX_SIDE = 256;
+  private static final int MAX_GAMES = 100000;
+  private static final long MAX_TOTAL_CELLS = 4L * 1024 * 1024;
+  private static final int BUFFER_SIZE = 16 * 1024;
+  private static final int OUTPUT_LIMIT = 64 * 1024;
+
+  private Map<Integer, BoardModel> games;
+  private int nextGameId;
+  private long totalCells;
+  private long movesCount;
+  private StringBuilder reply;
+
+  /** Starts a server with no games. */
+  public GameServer(){
+    games = new HashMap<Integer, BoardModel>();
+    nextGameId = 1;
+    reply = new StringBuilder();
+  }
+
+  /**
+   * Returns the number of games being hosted.
+   * @return The number of games being hosted.
+   */
+  public int getGamesCount(){
+    return games.size();
+  }
+
+  /**
+   * Returns the number of moves applied so far.
+   * @return The number of moves applied so far.
+   */
+  public long getMovesCount(){
+    return movesCount;
+  }
+
+  /**
+   * Serves clients on the loopback interface until the thread is interrupted.
+   * @param port TCP port to listen on.
+   * @throws IOException If the socket cannot be opened.
+   */
+  public void serve(int port) throws IOException{
+    Selector selector = Selector.open();
+    ServerSocketChannel server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress("127.0.0.1", port));
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+
+    while(! Thread.currentThread().isInterrupted() ){
+      selector.select();
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while(keys.hasNext()){
+        SelectionKey key = keys.next();
+        keys.remove();
+        try{
+          if(! key.isValid() ){
+            continue;
+          }
+          if( key.isAcceptable() ){
+            SocketChannel client = server.accept();
+            if(client != null){
+              client.configureBlocking(false);
+              client.register(selector, SelectionKey.OP_READ, new Connection());
+            }
+          }else{
+            if( key.isReadable() ){
+              read(key);
+            }
+            if(key.isValid() && key.isWritable()){
+              write(key);
+              // replies drained: answer the lines held back
+              Connection conn = (Connection) key.attachment();
+              if(conn.out.position() < OUTPUT_LIMIT && conn.in.position() > 0){
+                answer(key);
+              }
+            }
+          }
+        }catch(IOException e){
+          key.cancel();
+          key.channel().close();
+        }
+      }
+    }
+    selector.close();
+    server.close();
+  }
+
+  /* Reads whatever arrived and answers it. */
+  private void read(SelectionKey key) throws IOException{
+    SocketChannel client = (SocketChannel) key.channel();
+    Connection conn = (Connection) key.attachment();
+    if(client.read(conn.in) < 0){
+      key.cancel();
+      client.close();
+      return;
+    }
+    answer(key);
+  }
+
+  /*
+   * Answers complete lines until the pending replies reach OUTPUT_LIMIT;
+   * the rest stay buffered until the client reads.
+   */
+  private void answer(SelectionKey key) throws IOException{
+    Connection conn = (Connection) key.attachment();
+    conn.in.flip();
+    int start = conn.in.position();
+    for(int i = start; i < conn.in.limit() && conn.out.position() < OUTPUT_LIMIT; i++){
+      if(conn.in.get(i) == '\n'){
+        String line = new String(conn.in.array(), start, i - start, StandardCharsets.US_ASCII);
+        reply.setLength(0);
+        handle(line.trim(), reply);
+        reply.append('\n');
+        conn.queue(reply);
+        start = i + 1;
+      }
+    }
+    conn.in.position(start);
+    conn.in.compact();
+    if(!conn.in.hasRemaining() && conn.out.position() < OUTPUT_LIMIT){
+      // a line longer than the buffer is never valid
+      key.cancel();
+      key.channel().close();
+      return;
+    }
+    write(key);
+  }
+
+  /*
+   * Flushes pending replies; waits for OP_WRITE if the socket is full,
+   * and stops reading while OUTPUT_LIMIT bytes are pending.
+   */
+  private void write(SelectionKey key) throws IOException{
+    SocketChannel client = (SocketChannel) key.channel();
+    Connection conn = (Connection) key.attachment();
+    conn.out.flip();
+    client.write(conn.out);
+    boolean pending = conn.out.hasRemaining();
+    conn.out.compact();
+    int ops = pending ? SelectionKey.OP_WRITE : 0;
+    if(conn.out.position() < OUTPUT_LIMIT){
+      ops |= SelectionKey.OP_READ;
+    }
+    key.interestOps(ops);
+  }
+
+  /**
+   * Applies one request line and appends the reply (without newline).
+   * @param line Request line.
+   * @param out Where the reply goes.
+   */
+  public void handle(String line, StringBuilder out){
+    String[] token = line.split(" +");
+    try{
+      switch(token[0]){
+        case "NEW":
+          newGame(token, out);
+          break;
+        case "REVEAL":
+        case "FLAG":
+        case "CHORD":
+          move(token, out);
+          break;
+        case "SHOW":
+          show(token, out);
+          break;
+        case "QUIT":
+          BoardModel quit = games.remove(Integer.parseInt(token[1]));
+          if(quit == null){
+            out.append("ERR No such game.");
+          }else{
+            totalCells -= quit.getRow() * quit.getCol();
+            out.append("OK");
+          }
+          break;
+        default:
+          out.append("ERR Unknown command.");
+      }
+    }catch(NumberFormatException e){
+      out.setLength(0);
+      out.append("ERR Expected numbers.");
+    }catch(ArrayIndexOutOfBoundsException e){
+      out.setLength(0);
+      out.append("ERR Missing arguments.");
+    }catch(IllegalArgumentException e){
+      out.setLength(0);
+      out.append("ERR ").append(e.getMessage());
+    }
+  }
+
+  /* NEW rows cols mines [seed [topology]] */
+  private void newGame(String[] token, StringBuilder out){
+    if(games.size() >= MAX_GAMES){
+      out.append("ERR Too many games.");
+      return;
+    }
+    int row = Integer.parseInt(token[1]);
+    int col = Integer.parseInt(token[2]);
+    int mines = Integer.parseInt(token[3]);
+    // checked before anything is allocated for the board
+    if(row <= 0 || col <= 0 || row > MAX_SIDE || col > MAX_SIDE){
+      out.append("ERR Expected rows and cols between 1 and ").append(MAX_SIDE).append('.');
+      return;
+    }
+    if(mines < 0 || mines >= row * col){
+      out.append("ERR Mines do not fit the board.");
+      return;
+    }
+    if(totalCells + row * col > MAX_TOTAL_CELLS){
+      out.append("ERR Too many Cells in play.");
+      return;
+    }
+    Topology topology = Topology.named(token.length > 5 ? token[5] : "SQUARE", row, col);
+    BoardModel board = new BoardModel(topology, mines);
+    if(token.length > 4){
+      board.newGame(Long.parseLong(token[4]));
+    }else{
+      board.newGame(System.nanoTime());
+    }
+    int id = nextGameId++;
+    games.put(id, board);
+    totalCells += row * col;
+    out.append("OK ").append(id);
+  }
+
+  /* REVEAL|FLAG|CHORD id row col */
+  private void move(String[] token, StringBuilder out){
+    BoardModel board = games.get(Integer.parseInt(token[1]));
+    if(board == null){
+      out.append("ERR No such game.");
+      return;
+    }
+    int index = board.indexOf(Integer.parseInt(token[2]), Integer.parseInt(token[3]));
+    int changed;
+    switch(token[0]){
+      case "REVEAL":
+        changed = board.reveal(index);
+        break;
+      case "FLAG":
+        changed = board.flag(index);
+        break;
+      default:
+        changed = board.wideReveal(index);
+    }
+    movesCount++;
+    out.append("OK ").append(changed).append(' ').append(stateOf(board));
+  }
+
+  /* SHOW id */
+  private void show(String[] token, StringBuilder out){
+    BoardModel board = games.get(Integer.parseInt(token[1]));
+    if(board == null){
+      out.append("ERR No such game.");
+      return;
+    }
+    out.append("OK ");
+    for(int r = 0; r < board.getRow(); r++){
+      if(r > 0){
+        out.append('/');
+      }
+      for(int c = 0; c < board.getCol(); c++){
+        int i = r * board.getCol() + c;
+        if( board.isFlagged(i) ){
+          out.append('F');
+        }else if(! board.isRevealed(i) ){
+          out.append('.');
+        }else if( board.isMined(i) ){
+          out.append('*');
+        }else{
+          out.append((char) ('0' + board.getMinesCount(i)));
+        }
+      }
+    }
+  }
+
+  /* Returns the state word used in replies. */
+  private static String stateOf(BoardModel board){
+    if(! board.isGameOver() ){
+      return "PLAYING";
+    }
+    return board.isVictory() ? "WON" : "LOST";
+  }
+
+  /** Buffers of one client. */
+  private static class Connection{
+    private ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /* Appends an ASCII reply, growing the output buffer if needed. */
+    private void queue(CharSequence s){
+      if(out.remaining() < s.length()){
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + s.length()));
+        out.flip();
+        bigger.put(out);
+        out = bigger;
+      }
+      for(int i = 0; i < s.length(); i++){
+        out.put((byte) s.charAt(i));
+      }
+    }
+  }
+
+  /**
+   * Starts the server.
+   * @param args Optional port number.
+   */
+  public static void main(String[] args) throws IOException{
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    System.out.println("Serving games on 127.0.0.1:" + port);
+    new GameServer().serve(port);
+  }
+
+}
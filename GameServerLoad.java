@@ -0,0 +1,100 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Local load generator for GameServer: each client thread keeps one
+ * game going with random moves and records the round-trip of every move.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class GameServerLoad{
+  private static final int ROWS = 16;
+  private static final int COLS = 30;
+  private static final int MINES = 99;
+
+  /**
+   * Runs the load.
+   * @param args [port] [clients] [moves per client]
+   */
+  public static void main(String[] args) throws Exception{
+    final int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+    final int moves = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+    final long[][] latency = new long[clients][moves];
+    Thread[] threads = new Thread[clients];
+    for(int t = 0; t < clients; t++){
+      final int id = t;
+      threads[t] = new Thread(new Runnable(){
+        public void run(){
+          try{
+            play(port, id, latency[id]);
+          }catch(IOException e){
+            throw new RuntimeException(e);
+          }
+        }
+      });
+    }
+    long start = System.nanoTime();
+    for(Thread t : threads){
+      t.start();
+    }
+    for(Thread t : threads){
+      t.join();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    long[] all = new long[clients * moves];
+    for(int t = 0; t < clients; t++){
+      System.arraycopy(latency[t], 0, all, t * moves, moves);
+    }
+    Arrays.sort(all);
+    System.out.printf("%d moves in %.2f s: %.0f moves/s%n", all.length, elapsed / 1e9,
+                      all.length / (elapsed / 1e9));
+    System.out.printf("p50 %.1f us, p99 %.1f us, max %.1f us%n", all[all.length / 2] / 1e3,
+                      all[(int) (all.length * 0.99)] / 1e3, all[all.length - 1] / 1e3);
+  }
+
+  /* Plays random moves on one connection, starting over after each game. */
+  private static void play(int port, int id, long[] latency) throws IOException{
+    Random random = new Random(id);
+    try(Socket socket = new Socket("127.0.0.1", port)){
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                    StandardCharsets.US_ASCII));
+      String game = request(out, in, "NEW " + ROWS + " " + COLS + " " + MINES + " " + id).substring(3);
+      for(int m = 0; m < latency.length; m++){
+        String command = random.nextInt(8) == 0 ? "FLAG " : "REVEAL ";
+        String line = command + game + " " + random.nextInt(ROWS) + " " + random.nextInt(COLS);
+        long start = System.nanoTime();
+        String answer = request(out, in, line);
+        latency[m] = System.nanoTime() - start;
+        if(! answer.endsWith("PLAYING") ){
+          request(out, in, "QUIT " + game);
+          game = request(out, in, "NEW " + ROWS + " " + COLS + " " + MINES + " " + random.nextLong())
+            .substring(3);
+        }
+      }
+    }
+  }
+
+  /* Sends one line and waits for its reply. */
+  private static String request(OutputStream out, BufferedReader in, String line) throws IOException{
+    out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+    String answer = in.readLine();
+    if(answer == null || answer.startsWith("ERR")){
+      throw new IOException("Server answered " + answer + " to " + line);
+    }
+    return answer;
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Immutable, versioned view of a GameBoard that any thread may read.
+ * Cells use the encoding of BoardBatch: the mines count for a revealed
+ * Cell (MINED for a revealed mine), HIDDEN or FLAGGED otherwise.
+ * Rows are shared with earlier snapshots until the board changes them.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public final class GameSnapshot{
+  public static final byte HIDDEN = BoardBatch.HIDDEN;
+  public static final byte FLAGGED = BoardBatch.FLAGGED;
+
+  private final long version;
+  private final byte[][] cells;
+  private final int totalMinesCount;
+  private final int totalFlagsCount;
+  private final double timeElapsed;
+  private final boolean isPlaying;
+  private final boolean isGameOver;
+
+  /*
+   * Only GameBoard creates snapshots; it hands over row arrays it will
+   * never write again.
+   */
+  GameSnapshot(long version, byte[][] cells, int totalMinesCount, int totalFlagsCount,
+               double timeElapsed, boolean isPlaying, boolean isGameOver){
+    this.version = version;
+    this.cells = cells;
+    this.totalMinesCount = totalMinesCount;
+    this.totalFlagsCount = totalFlagsCount;
+    this.timeElapsed = timeElapsed;
+    this.isPlaying = isPlaying;
+    this.isGameOver = isGameOver;
+  }
+
+  /**
+   * Returns the version; later snapshots have larger versions.
+   * @return The version.
+   */
+  public long getVersion(){
+    return version;
+  }
+
+  /**
+   * Returns the number of rows.
+   * @return The number of rows.
+   */
+  public int getRow(){
+    return cells.length;
+  }
+
+  /**
+   * Returns the number of cols.
+   * @return The number of cols.
+   */
+  public int getCol(){
+    return cells.length == 0 ? 0 : cells[0].length;
+  }
+
+  /**
+   * Returns the visible state of a Cell.
+   * @param row Row position.
+   * @param col Col position.
+   * @return Mines count, MINED, HIDDEN or FLAGGED.
+   */
+  public byte getCell(int row, int col){
+    return cells[row][col];
+  }
+
+  /*
+   * Checks if row is the very same array in both snapshots, which means
+   * it was not written in between.
+   */
+  boolean isSameRow(GameSnapshot other, int row){
+    return cells[row] == other.cells[row];
+  }
+
+  /**
+   * Returns total mines count.
+   * @return Total mines count.
+   */
+  public int getTotalMinesCount(){
+    return totalMinesCount;
+  }
+
+  /**
+   * Returns total flags count.
+   * @return Total flags count.
+   */
+  public int getTotalFlagsCount(){
+    return totalFlagsCount;
+  }
+
+  /**
+   * Returns the seconds played.
+   * @return The seconds played.
+   */
+  public double getTimeElapsed(){
+    return timeElapsed;
+  }
+
+  /**
+   * Returns true if the game was being played.
+   * @return True if the game was being played.
+   */
+  public boolean isPlaying(){
+    return isPlaying;
+  }
+
+  /**
+   * Returns true if game was over.
+   * @return True if game was over.
+   */
+  public boolean isGameOver(){
+    return isGameOver;
+  }
+
+}
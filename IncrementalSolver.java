@@ -0,0 +1,360 @@
+/**
+ * Deduction solver that lives alongside a BoardModel between moves.
+ * Each change notification only marks the numbers next to the changed
+ * Cell as dirty; update() re-evaluates those numbers (alone and against
+ * overlapping numbers) until nothing new is proven. Proven Cells wait in
+ * ready queues, so hints and auto-play cost time proportional to the
+ * change rather than to the board size.
+ *
+ * Flags are never trusted: only revealed numbers and earlier proofs are.
+ * A Cell hidden again, as undo does, voids every proof: the next update()
+ * starts over from the revealed numbers, once per undo, in O(Cells).
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class IncrementalSolver implements BoardListener{
+  private static final byte UNKNOWN = 0;
+  private static final byte SAFE = 1;
+  private static final byte MINE = 2;
+
+  private BoardModel board;
+  // the neighbors of Cell i are neighbors[starts[i]] to neighbors[starts[i + 1] - 1]
+  private int[] starts;
+  private int[] neighbors;
+  private byte[] known;
+  // Cells seen revealed, to tell a Cell hidden again from a flag
+  private boolean[] isSeen;
+  private boolean isStale;
+  // dirty numbers, as a ring buffer without duplicates
+  private int[] dirty;
+  private boolean[] isDirty;
+  private int dirtyHead;
+  private int dirtySize;
+  // proven Cells in the order they were proven
+  private int[] safeQueue;
+  private int safeHead;
+  private int safeTail;
+  private int[] mineQueue;
+  private int mineHead;
+  private int mineTail;
+  // scratch for the unknown neighbors of two numbers
+  private int[] unknownA;
+  private int[] unknownB;
+  // numbers already compared in this round, marked with the round number
+  private int[] compared;
+  private int round;
+
+  /**
+   * Attaches a solver to the board and considers what is already revealed.
+   * @param board Board to follow.
+   * @throws IllegalArgumentException If supplied BoardModel is null.
+   */
+  public IncrementalSolver(BoardModel board){
+    if(board == null){
+      throw new IllegalArgumentException("Expected board.");
+    }
+    this.board = board;
+    starts = board.getTopology().getStarts();
+    neighbors = board.getTopology().getNeighbors();
+    int cells = board.getRow() * board.getCol();
+    known = new byte[cells];
+    isSeen = new boolean[cells];
+    dirty = new int[cells];
+    isDirty = new boolean[cells];
+    safeQueue = new int[cells];
+    mineQueue = new int[cells];
+    unknownA = new int[board.getTopology().getMaxDegree()];
+    unknownB = new int[board.getTopology().getMaxDegree()];
+    compared = new int[cells];
+    board.addListener(this);
+    markRevealed();
+  }
+
+  /**
+   * Marks the numbers around a changed Cell for re-evaluation.
+   * @param index Index of the changed Cell.
+   */
+  @Override
+  public void cellChanged(int index){
+    if(! board.isRevealed(index) ){
+      if(isSeen[index]){
+        // hidden again: proofs built on its number no longer hold
+        isSeen[index] = false;
+        isStale = true;
+      }
+      return; // flags are not trusted, so they change nothing
+    }
+    isSeen[index] = true;
+    if(known[index] == SAFE){
+      // its neighbors already saw it as safe; only the new number is to check
+      markDirty(index);
+    }else{
+      markAround(index);
+    }
+  }
+
+  /** Forgets every proof of the previous game. */
+  @Override
+  public void boardReset(){
+    forget();
+    for(int i = 0; i < isSeen.length; i++){
+      isSeen[i] = false;
+    }
+  }
+
+  /* Drops every proof and every queued number. */
+  private void forget(){
+    isStale = false;
+    for(int i = 0; i < known.length; i++){
+      known[i] = UNKNOWN;
+      isDirty[i] = false;
+    }
+    dirtyHead = 0;
+    dirtySize = 0;
+    safeHead = 0;
+    safeTail = 0;
+    mineHead = 0;
+    mineTail = 0;
+  }
+
+  /**
+   * Re-evaluates every dirty number until nothing new is proven.
+   * @return Number of Cells newly proven.
+   */
+  public int update(){
+    if(isStale){
+      forget();
+      markRevealed();
+    }
+    int proven = safeTail + mineTail;
+    while(dirtySize > 0){
+      int a = dirty[dirtyHead];
+      dirtyHead = (dirtyHead + 1) % dirty.length;
+      dirtySize--;
+      isDirty[a] = false;
+      if(! isNumber(a) ){
+        continue;
+      }
+      int sizeA = gather(a, unknownA);
+      if(sizeA == 0){
+        continue;
+      }
+      int remA = remainingMines(a);
+      if(remA == 0){
+        proveAll(unknownA, sizeA, SAFE);
+        continue;
+      }
+      if(remA == sizeA){
+        proveAll(unknownA, sizeA, MINE);
+        continue;
+      }
+      compareWithOverlapping(a, sizeA, remA);
+    }
+    return safeTail + mineTail - proven;
+  }
+
+  /**
+   * Returns the next proven-safe Cell that is still hidden, or -1.
+   * @return Index of a safe Cell, or -1 if none is proven.
+   */
+  public int nextSafe(){
+    update();
+    while(safeHead < safeTail){
+      int i = safeQueue[safeHead];
+      if(!board.isRevealed(i) && !board.isFlagged(i)){
+        return i;
+      }
+      safeHead++;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the next proven-mined Cell that is not flagged yet, or -1.
+   * @return Index of a mined Cell, or -1 if none is proven.
+   */
+  public int nextMine(){
+    update();
+    while(mineHead < mineTail){
+      int i = mineQueue[mineHead];
+      if(!board.isRevealed(i) && !board.isFlagged(i)){
+        return i;
+      }
+      mineHead++;
+    }
+    return -1;
+  }
+
+  /**
+   * Auto-play: reveals every proven-safe Cell and flags every proven mine,
+   * including what those moves prove in turn.
+   * @return Number of moves made.
+   */
+  public int playProvenMoves(){
+    int moves = 0;
+    while(! board.isGameOver() ){
+      int i = nextSafe();
+      if(i >= 0){
+        board.reveal(i);
+      }else{
+        i = nextMine();
+        if(i < 0){
+          break;
+        }
+        board.flag(i);
+      }
+      moves++;
+    }
+    return moves;
+  }
+
+  /*
+   * Subset rule against every number sharing an unknown with a, found as
+   * the neighbors of a's unknowns: if one set of unknowns contains the
+   * other, the difference holds exactly the difference of remaining mines.
+   */
+  private void compareWithOverlapping(int a, int sizeA, int remA){
+    round++;
+    compared[a] = round;
+    for(int u = 0; u < sizeA; u++){
+      int cell = unknownA[u];
+      for(int k = starts[cell]; k < starts[cell + 1]; k++){
+        int b = neighbors[k];
+        if(compared[b] == round || !isNumber(b)){
+          continue;
+        }
+        compared[b] = round;
+        int sizeB = gather(b, unknownB);
+        int remB = remainingMines(b);
+        if(sizeA < sizeB && contains(unknownB, sizeB, unknownA, sizeA)){
+          proveDifference(unknownB, sizeB, unknownA, sizeA, remB - remA);
+        }else if(sizeB < sizeA && contains(unknownA, sizeA, unknownB, sizeB)){
+          proveDifference(unknownA, sizeA, unknownB, sizeB, remA - remB);
+          // unknownA changed under us; a is dirty again if anything was proven
+          return;
+        }
+      }
+    }
+  }
+
+  /* Proves big \ small when its remaining mines settle it. */
+  private void proveDifference(int[] big, int sizeBig, int[] small, int sizeSmall, int mines){
+    int size = sizeBig - sizeSmall;
+    byte kind;
+    if(mines == 0){
+      kind = SAFE;
+    }else if(mines == size){
+      kind = MINE;
+    }else{
+      return;
+    }
+    for(int i = 0; i < sizeBig; i++){
+      if(! contains(small, sizeSmall, big[i]) ){
+        prove(big[i], kind);
+      }
+    }
+  }
+
+  /* Proves every listed Cell. */
+  private void proveAll(int[] cells, int size, byte kind){
+    for(int i = 0; i < size; i++){
+      prove(cells[i], kind);
+    }
+  }
+
+  /* Records a proof and re-evaluates the numbers around it. */
+  private void prove(int index, byte kind){
+    if(known[index] != UNKNOWN){
+      return;
+    }
+    known[index] = kind;
+    if(kind == SAFE){
+      safeQueue[safeTail++] = index;
+    }else{
+      mineQueue[mineTail++] = index;
+    }
+    markAround(index);
+  }
+
+  /* Collects hidden, unproven neighbors of a number. Returns the count. */
+  private int gather(int index, int[] out){
+    int size = 0;
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      int n = neighbors[k];
+      if(!board.isRevealed(n) && known[n] == UNKNOWN){
+        out[size++] = n;
+      }
+    }
+    return size;
+  }
+
+  /* Mines around a number not yet accounted for by proofs. */
+  private int remainingMines(int index){
+    int mines = board.getMinesCount(index);
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      if(known[neighbors[k]] == MINE){
+        mines--;
+      }
+    }
+    return mines;
+  }
+
+  /* Checks if Cell is a revealed, non-mine Cell. */
+  private boolean isNumber(int index){
+    return board.isRevealed(index) && !board.isMined(index);
+  }
+
+  /* Marks every revealed Cell dirty, to start over from the board. */
+  private void markRevealed(){
+    for(int i = 0; i < known.length; i++){
+      if( board.isRevealed(i) ){
+        isSeen[i] = true;
+        markDirty(i);
+      }
+    }
+  }
+
+  /* Marks the Cell and its neighbors dirty. */
+  private void markAround(int index){
+    if( board.isRevealed(index) ){
+      markDirty(index);
+    }
+    for(int k = starts[index]; k < starts[index + 1]; k++){
+      if( board.isRevealed(neighbors[k]) ){
+        markDirty(neighbors[k]);
+      }
+    }
+  }
+
+  /* Queues a number for re-evaluation unless already queued. */
+  private void markDirty(int index){
+    if(isDirty[index]){
+      return;
+    }
+    isDirty[index] = true;
+    dirty[(dirtyHead + dirtySize) % dirty.length] = index;
+    dirtySize++;
+  }
+
+  /* Checks if every element of small is in big. */
+  private static boolean contains(int[] big, int sizeBig, int[] small, int sizeSmall){
+    for(int i = 0; i < sizeSmall; i++){
+      if(! contains(big, sizeBig, small[i]) ){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /* Checks if value is among the first size elements. */
+  private static boolean contains(int[] values, int size, int value){
+    for(int i = 0; i < size; i++){
+      if(values[i] == value){
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+/**
+ * Set of Cells kept as sorted, disjoint runs per row, for huge boards
+ * where cascades reveal long stretches: memory grows with the number of
+ * run boundaries, not with the number of Cells, and an empty row holds
+ * no array at all.
+ *
+ * A point query is a binary search within its row. Adding a Cell next to
+ * a run extends it in place, so a cascade mostly grows runs instead of
+ * inserting new ones; insertRange() adds a whole stretch at once.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class IntervalMask implements CellMask{
+  private static final int INITIAL_RUNS = 2;
+
+  private int row;
+  private int col;
+  // row r has bounds[r][0..sizes[r]): first col, past-the-last col, per run
+  private int[][] bounds;
+  private int[] sizes;
+
+  /**
+   * Starts an empty set.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @throws IllegalArgumentException If dimensions are not positive.
+   */
+  public IntervalMask(int row, int col){
+    if(row <= 0 || col <= 0){
+      throw new IllegalArgumentException("Expected positive dimensions.");
+    }
+    this.row = row;
+    this.col = col;
+    bounds = new int[row][];
+    sizes = new int[row];
+  }
+
+  @Override
+  public boolean get(int index){
+    int r = index / col;
+    int k = runBefore(r, index % col);
+    return k >= 0 && index % col < bounds[r][k + 1];
+  }
+
+  @Override
+  public void set(int index, boolean value){
+    int r = index / col;
+    int c = index % col;
+    if(value){
+      insertRange(r, c, c + 1);
+    }else{
+      removeCell(r, c);
+    }
+  }
+
+  /**
+   * Adds the Cells of a row from col from (inclusive) to col to
+   * (exclusive), merging with the runs they touch.
+   * @param row Row position.
+   * @param from First col.
+   * @param to Past-the-last col.
+   * @throws IllegalArgumentException If the range is outside the row.
+   */
+  public void insertRange(int row, int from, int to){
+    if(row < 0 || row >= this.row || from < 0 || to > col || from > to){
+      throw new IllegalArgumentException("Out of game bounds.");
+    }
+    if(from == to){
+      return;
+    }
+    int[] b = bounds[row];
+    int size = sizes[row];
+    // first run ending at or after from, last run starting at or before to
+    int first = runBefore(row, from);
+    if(first < 0 || b[first + 1] < from){
+      first += 2;
+    }
+    int last = runBefore(row, to);
+    if(first > last){
+      // touches no run: open a gap at first
+      b = ensureRoom(row, size + 2);
+      System.arraycopy(b, first, b, first + 2, size - first);
+      b[first] = from;
+      b[first + 1] = to;
+      sizes[row] = size + 2;
+      return;
+    }
+    // runs first..last become one
+    b[first] = Math.min(b[first], from);
+    b[first + 1] = Math.max(b[last + 1], to);
+    if(last > first){
+      System.arraycopy(b, last + 2, b, first + 2, size - last - 2);
+      sizes[row] = size - (last - first);
+    }
+  }
+
+  /* Takes one Cell out of its run, splitting it if needed. */
+  private void removeCell(int r, int c){
+    int k = runBefore(r, c);
+    if(k < 0 || c >= bounds[r][k + 1]){
+      return;
+    }
+    int[] b = bounds[r];
+    int size = sizes[r];
+    if(b[k] == c && b[k + 1] == c + 1){
+      System.arraycopy(b, k + 2, b, k, size - k - 2);
+      sizes[r] = size - 2;
+    }else if(b[k] == c){
+      b[k]++;
+    }else if(b[k + 1] == c + 1){
+      b[k + 1]--;
+    }else{
+      b = ensureRoom(r, size + 2);
+      System.arraycopy(b, k + 2, b, k + 4, size - k - 2);
+      b[k + 2] = c + 1;
+      b[k + 3] = b[k + 1];
+      b[k + 1] = c;
+      sizes[r] = size + 2;
+    }
+  }
+
+  /* Position of the last run of a row starting at or before c, or -2. */
+  private int runBefore(int r, int c){
+    int[] b = bounds[r];
+    int low = 0;
+    int high = sizes[r] / 2 - 1;
+    while(low <= high){
+      int mid = (low + high) >>> 1;
+      if(b[2 * mid] <= c){
+        low = mid + 1;
+      }else{
+        high = mid - 1;
+      }
+    }
+    return 2 * high;
+  }
+
+  /* The array of a row, grown by doubling to hold at least size ints. */
+  private int[] ensureRoom(int r, int size){
+    int[] b = bounds[r];
+    if(b == null){
+      b = new int[Math.max(size, 2 * INITIAL_RUNS)];
+    }else if(b.length < size){
+      b = Arrays.copyOf(b, Math.max(size, 2 * b.length));
+    }
+    bounds[r] = b;
+    return b;
+  }
+
+  /** Empties the set, keeping the arrays of the rows for the next game. */
+  @Override
+  public void clear(){
+    Arrays.fill(sizes, 0);
+  }
+
+  @Override
+  public int getRuns(int row, int[] runs){
+    int size = sizes[row];
+    if(size > 0){
+      System.arraycopy(bounds[row], 0, runs, 0, size);
+    }
+    return size / 2;
+  }
+
+  /**
+   * Returns the number of runs over every row.
+   * @return The number of runs.
+   */
+  public int getRunsCount(){
+    int count = 0;
+    for(int size : sizes){
+      count += size / 2;
+    }
+    return count;
+  }
+
+  @Override
+  public long getMemoryUsage(){
+    // array headers are counted as 16 bytes, references as 4
+    long bytes = 16 + 4L * row + 16 + 4L * row;
+    for(int[] b : bounds){
+      if(b != null){
+        bytes += 16 + 4L * b.length;
+      }
+    }
+    return bytes;
+  }
+
+}
@@ -25,13 +25,13 @@ public class LabelTimer extends JLabel implements GameViewer, ActionListener{
     gameBoard = gb;
     gameTimer = new Timer(timerDelay, this);      
     
-    setText("<html>Timer<br />" + (int)(gameBoard.timeElapsed) + "</html>");
+    setText("<html>Timer<br />" + (int)(gameBoard.getTimeElapsed()) + "</html>");
   }
   
   /** Updates label. */
   @Override
   public void update(){
-    if(gameBoard.isPlaying){
+    if(gameBoard.isPlaying()){
       if(! gameTimer.isRunning()){
         gameTimer.start();
       }
@@ -40,7 +40,7 @@ public class LabelTimer extends JLabel implements GameViewer, ActionListener{
         gameTimer.stop();        
       }
     }
-    setText("<html>Timer<br />" + (int)(gameBoard.timeElapsed) + "</html>");
+    setText("<html>Timer<br />" + (int)(gameBoard.getTimeElapsed()) + "</html>");
   }
   
   /**
@@ -49,8 +49,8 @@ public class LabelTimer extends JLabel implements GameViewer, ActionListener{
    */
   @Override
   public void actionPerformed(ActionEvent e){
-    if(gameBoard.isPlaying){
-      gameBoard.timeElapsed += timerDelay / 1000.0;
+    if(gameBoard.isPlaying()){
+      gameBoard.addTimeElapsed(timerDelay / 1000.0);
     }
     update();
   }
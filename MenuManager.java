@@ -11,10 +11,15 @@ import javax.swing.*;
 public class MenuManager extends JMenuBar implements ActionListener{
   private static final String NEW_GAME = "new";
   private static final String EXIT_GAME = "exit";
+  private static final String UNDO_MOVE = "undo";
+  private static final String REDO_MOVE = "redo";
+  private static final String BEST_TIMES = "best";
   private static final String ABOUT_GAME = "about";
   private static final String DIFFICULTY_0 = "beginner";
   private static final String DIFFICULTY_1 = "intermediate";
   private static final String DIFFICULTY_2 = "expert";
+  private static final String FAST_PLAY = "fast";
+  private static final String SPECTATORS = "spectators";
   
   private static final String ABOUT_MESSAGE =
     "Author: Daniel Rolandi" +
@@ -45,6 +50,23 @@ public class MenuManager extends JMenuBar implements ActionListener{
     newGame.setActionCommand(NEW_GAME);
     fileMenu.add(newGame);
     
+    JMenuItem undoMove = new JMenuItem("Undo Move", KeyEvent.VK_U);
+    undoMove.setAccelerator( KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK) );
+    undoMove.addActionListener(this);
+    undoMove.setActionCommand(UNDO_MOVE);
+    fileMenu.add(undoMove);
+    
+    JMenuItem redoMove = new JMenuItem("Redo Move", KeyEvent.VK_R);
+    redoMove.setAccelerator( KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK) );
+    redoMove.addActionListener(this);
+    redoMove.setActionCommand(REDO_MOVE);
+    fileMenu.add(redoMove);
+    
+    JMenuItem bestTimes = new JMenuItem("Best Times", KeyEvent.VK_B);
+    bestTimes.addActionListener(this);
+    bestTimes.setActionCommand(BEST_TIMES);
+    fileMenu.add(bestTimes);
+    
     JMenuItem exitGame = new JMenuItem("Exit Game", KeyEvent.VK_X);    
     exitGame.addActionListener(this);
     exitGame.setActionCommand(EXIT_GAME);
@@ -76,6 +98,23 @@ public class MenuManager extends JMenuBar implements ActionListener{
     buttonGroup.add(expertButton);
     difficultyMenu.add(expertButton);
     
+    // (O)ptions
+    JMenu optionsMenu = new JMenu("Options");
+    optionsMenu.setMnemonic(KeyEvent.VK_O);
+    add(optionsMenu);
+    
+    JCheckBoxMenuItem fastPlay = new JCheckBoxMenuItem("Auto Flag and Chord");
+    fastPlay.setMnemonic(KeyEvent.VK_A);
+    fastPlay.addActionListener(this);
+    fastPlay.setActionCommand(FAST_PLAY);
+    optionsMenu.add(fastPlay);
+    
+    JCheckBoxMenuItem spectators = new JCheckBoxMenuItem("Allow Spectators");
+    spectators.setMnemonic(KeyEvent.VK_S);
+    spectators.addActionListener(this);
+    spectators.setActionCommand(SPECTATORS);
+    optionsMenu.add(spectators);
+    
     // (A)bout
     JMenuItem aboutMenu = new JMenuItem("About");    
     aboutMenu.addActionListener(this);
@@ -99,6 +138,15 @@ public class MenuManager extends JMenuBar implements ActionListener{
       case NEW_GAME:
         gameBoard.newGame();
         break;
+      case UNDO_MOVE:
+        gameBoard.undo();
+        break;
+      case REDO_MOVE:
+        gameBoard.redo();
+        break;
+      case BEST_TIMES:
+        gameBoard.showBestTimes();
+        break;
       case EXIT_GAME:
         System.exit(0);
         break;
@@ -111,6 +159,12 @@ public class MenuManager extends JMenuBar implements ActionListener{
       case DIFFICULTY_2:
         gameBoard.setDifficulty(Difficulty.EXPERT);
         break;
+      case FAST_PLAY:
+        gameBoard.setFastPlay( ((JCheckBoxMenuItem) e.getSource()).isSelected() );
+        break;
+      case SPECTATORS:
+        gameBoard.setSpectatorsAllowed( ((JCheckBoxMenuItem) e.getSource()).isSelected() );
+        break;
       case ABOUT_GAME:
         JOptionPane.showMessageDialog(null, ABOUT_MESSAGE);
         break;
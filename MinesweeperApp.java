@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
 
 /**
  * Launcher for the Minesweeper Game.
@@ -8,45 +10,91 @@ import java.awt.*;
  * @version 5/2/2013
  */
 public class MinesweeperApp{
+  private static final File SCORES_FILE = new File(System.getProperty("user.home"), ".minesweeper/scores.dat");
+  private static final File TELEMETRY_FILE = new File(System.getProperty("user.home"), ".minesweeper/moves.dat");
+  private static final File POOL_FILE = new File(System.getProperty("user.home"), ".minesweeper/pool.dat");
   
-  /** Starts the application. */
-  public static void main(String[] args){
-    JFrame frame = new JFrame("Mines");
-    frame.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
-    frame.setResizable(false);
+  /**
+   * Starts the application.
+   * @param args --headless [--quiet] to play on the terminal instead.
+   */
+  public static void main(String[] args) throws IOException{
+    // checked before any Swing class is touched, so none gets loaded
+    if(args.length > 0 && args[0].equals("--headless")){
+      TerminalGame.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    WindowLauncher.start();
+  }
+  
+  /*
+   * The window lives in its own class: verifying this one would otherwise
+   * load the Swing classes it passes around, even when running headless.
+   */
+  private static class WindowLauncher{
+    /* Builds and shows the window. */
+    private static void start(){
+      JFrame frame = new JFrame("Mines");
+      frame.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
+      frame.setResizable(false);
     
-    // add stuff
-    Container cp = frame.getContentPane();
+      // add stuff
+      Container cp = frame.getContentPane();
     
-    JPanel mainPanel = new JPanel(new BorderLayout());
+      JPanel mainPanel = new JPanel(new BorderLayout());
     
-    JPanel minefield = new JPanel();
-    GameBoard gameBoard = new GameBoard(frame, minefield);
-    mainPanel.add(minefield, BorderLayout.CENTER);
+      JPanel minefield = new JPanel();
+      GameBoard gameBoard = new GameBoard(frame, minefield);
+      try{
+        gameBoard.setScoreStore(new ScoreStore(SCORES_FILE));
+      }catch(IOException e){
+        System.err.println("Best times disabled: " + e.getMessage());
+      }
+      final BoardPool pool = new BoardPool(POOL_FILE);
+      gameBoard.setBoardPool(pool);
+      Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+        public void run(){
+          pool.close();
+        }
+      }));
+      try{
+        final MoveTelemetry telemetry = new MoveTelemetry(TELEMETRY_FILE);
+        gameBoard.setTelemetry(telemetry);
+        // the window exits the VM directly; the game in progress is still kept
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+          public void run(){
+            telemetry.close();
+          }
+        }));
+      }catch(IOException e){
+        System.err.println("Move telemetry disabled: " + e.getMessage());
+      }
+      mainPanel.add(minefield, BorderLayout.CENTER);
     
-    JPanel statusPanel = new JPanel(new BorderLayout());
-    LabelMines mines = new LabelMines(gameBoard);
-    gameBoard.addViewer(mines);
-    statusPanel.add(mines, BorderLayout.WEST);
+      JPanel statusPanel = new JPanel(new BorderLayout());
+      LabelMines mines = new LabelMines(gameBoard);
+      gameBoard.addViewer(mines);
+      statusPanel.add(mines, BorderLayout.WEST);
     
-    LabelFlags flags = new LabelFlags(gameBoard);
-    gameBoard.addViewer(flags);
-    statusPanel.add(flags, BorderLayout.CENTER);        
+      LabelFlags flags = new LabelFlags(gameBoard);
+      gameBoard.addViewer(flags);
+      statusPanel.add(flags, BorderLayout.CENTER);        
     
-    LabelTimer timer = new LabelTimer(gameBoard);
-    gameBoard.addViewer(timer);
-    statusPanel.add(timer, BorderLayout.EAST);
+      LabelTimer timer = new LabelTimer(gameBoard);
+      gameBoard.addViewer(timer);
+      statusPanel.add(timer, BorderLayout.EAST);
     
-    mainPanel.add(statusPanel, BorderLayout.NORTH);
+      mainPanel.add(statusPanel, BorderLayout.NORTH);
     
-    cp.add(mainPanel);
-    MenuManager menuManager = new MenuManager(gameBoard);
+      cp.add(mainPanel);
+      MenuManager menuManager = new MenuManager(gameBoard);
     
-    frame.pack();
-    frame.setJMenuBar(menuManager);
-    Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();      
-    frame.setLocation( (dim.width - frame.getWidth())/2, (dim.height - frame.getHeight())/2);
-    frame.setVisible(true);
+      frame.pack();
+      frame.setJMenuBar(menuManager);
+      Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();      
+      frame.setLocation( (dim.width - frame.getWidth())/2, (dim.height - frame.getHeight())/2);
+      frame.setVisible(true);
+    }
   }
   
 }
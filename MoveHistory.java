@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unlimited undo and redo of moves on a BoardModel, for practice.
+ * A move only records what it changed: the Cells it revealed, kept as a
+ * bitset patch or an index list (whichever is smaller), and the Cells
+ * whose flag it toggled. Undoing or redoing costs O(Cells changed).
+ *
+ * Moves must go through this class to be recorded; a change made around
+ * it leaves the history unusable, so it is cleared.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class MoveHistory implements BoardListener{
+  private static final int PLAYING = 1;
+  private static final int GAME_OVER = 2;
+  private static final int VICTORY = 4;
+
+  private BoardModel board;
+  private List<Move> undoList;
+  private List<Move> redoList;
+  private boolean isRecording;
+  private boolean isRestoring;
+  // Cells changed by the move being recorded
+  private int[] revealed;
+  private int revealedSize;
+  private int[] toggled;
+  private int toggledSize;
+  private int statusBefore;
+
+  /**
+   * Attaches an empty history to the board.
+   * @param board Board to record.
+   * @throws IllegalArgumentException If supplied BoardModel is null.
+   */
+  public MoveHistory(BoardModel board){
+    if(board == null){
+      throw new IllegalArgumentException("Expected board.");
+    }
+    this.board = board;
+    undoList = new ArrayList<Move>();
+    redoList = new ArrayList<Move>();
+    revealed = new int[board.getRow() * board.getCol()];
+    toggled = new int[board.getRow() * board.getCol()];
+    board.addListener(this);
+  }
+
+  /**
+   * Reveals a Cell as a recorded move.
+   * @param index Cell index.
+   * @return Number of Cells revealed.
+   */
+  public int reveal(int index){
+    begin();
+    return end(board.reveal(index));
+  }
+
+  /**
+   * Toggles the flag of a Cell as a recorded move.
+   * @param index Cell index.
+   * @return Number of Cells changed.
+   */
+  public int flag(int index){
+    begin();
+    return end(board.flag(index));
+  }
+
+  /**
+   * Chords a Cell as a recorded move.
+   * @param index Cell index.
+   * @return Number of Cells revealed.
+   */
+  public int wideReveal(int index){
+    begin();
+    return end(board.wideReveal(index));
+  }
+
+  /**
+   * Returns true if there is a move to undo.
+   * @return True if there is a move to undo.
+   */
+  public boolean canUndo(){
+    return ! undoList.isEmpty();
+  }
+
+  /**
+   * Returns true if there is a move to redo.
+   * @return True if there is a move to redo.
+   */
+  public boolean canRedo(){
+    return ! redoList.isEmpty();
+  }
+
+  /**
+   * Takes back the last move, even a losing one.
+   * @throws IllegalStateException If there is nothing to undo.
+   */
+  public void undo(){
+    if(! canUndo() ){
+      throw new IllegalStateException("Nothing to undo.");
+    }
+    Move move = undoList.remove(undoList.size() - 1);
+    apply(move, false);
+    redoList.add(move);
+  }
+
+  /**
+   * Plays again the last move taken back.
+   * @throws IllegalStateException If there is nothing to redo.
+   */
+  public void redo(){
+    if(! canRedo() ){
+      throw new IllegalStateException("Nothing to redo.");
+    }
+    Move move = redoList.remove(redoList.size() - 1);
+    apply(move, true);
+    undoList.add(move);
+  }
+
+  /**
+   * Returns the approximate bytes held by the recorded moves.
+   * @return Approximate memory of the history in bytes.
+   */
+  public long getMemoryUsage(){
+    long bytes = 0;
+    for(Move m : undoList){
+      bytes += m.getMemoryUsage();
+    }
+    for(Move m : redoList){
+      bytes += m.getMemoryUsage();
+    }
+    return bytes;
+  }
+
+  /**
+   * Collects a Cell changed by the move being recorded.
+   * @param index Index of the changed Cell.
+   */
+  @Override
+  public void cellChanged(int index){
+    if(isRestoring){
+      return;
+    }
+    if(! isRecording){
+      undoList.clear();
+      redoList.clear();
+      return;
+    }
+    // a rule either reveals a hidden Cell or toggles a flag, never both
+    if( board.isRevealed(index) ){
+      revealed[revealedSize++] = index;
+    }else{
+      toggled[toggledSize++] = index;
+    }
+  }
+
+  /** Forgets every move of the previous game. */
+  @Override
+  public void boardReset(){
+    undoList.clear();
+    redoList.clear();
+  }
+
+  /* Starts recording a move. */
+  private void begin(){
+    isRecording = true;
+    revealedSize = 0;
+    toggledSize = 0;
+    statusBefore = status();
+  }
+
+  /* Stops recording; keeps the move if it changed anything. */
+  private int end(int result){
+    isRecording = false;
+    if(revealedSize + toggledSize > 0){
+      undoList.add(new Move(revealed, revealedSize, Arrays.copyOf(toggled, toggledSize),
+                            board.getRow() * board.getCol(), statusBefore, status()));
+      redoList.clear();
+    }
+    return result;
+  }
+
+  /* Replays a move forward or backward. */
+  private void apply(Move move, boolean isForward){
+    isRestoring = true;
+    try{
+      move.revealed.restore(board, isForward);
+      for(int i : move.toggled){
+        board.restoreCell(i, board.isRevealed(i), ! board.isFlagged(i) );
+      }
+      int s = isForward ? move.statusAfter : move.statusBefore;
+      board.restoreStatus((s & PLAYING) != 0, (s & GAME_OVER) != 0, (s & VICTORY) != 0);
+    }finally{
+      isRestoring = false;
+    }
+  }
+
+  /* Packs the game status into bits. */
+  private int status(){
+    return (board.isPlaying() ? PLAYING : 0) | (board.isGameOver() ? GAME_OVER : 0)
+      | (board.isVictory() ? VICTORY : 0);
+  }
+
+  /** What one move changed. */
+  private static class Move{
+    private final CellPatch revealed;
+    private final int[] toggled;
+    private final int statusBefore;
+    private final int statusAfter;
+
+    private Move(int[] revealed, int revealedSize, int[] toggled, int cells, int statusBefore,
+                 int statusAfter){
+      this.revealed = new CellPatch(revealed, revealedSize, cells);
+      this.toggled = toggled;
+      this.statusBefore = statusBefore;
+      this.statusAfter = statusAfter;
+    }
+
+    private long getMemoryUsage(){
+      return 32 + revealed.getMemoryUsage() + 16 + 4L * toggled.length;
+    }
+  }
+
+  /**
+   * Immutable set of Cell indexes, stored as a list when small
+   * and as a bitset when a cascade makes that smaller.
+   */
+  private static class CellPatch{
+    private final int[] list;
+    private final long[] bits;
+
+    private CellPatch(int[] cells, int size, int cellsCount){
+      int words = (cellsCount + 63) / 64;
+      if(size > words * 2){
+        bits = new long[words];
+        for(int k = 0; k < size; k++){
+          bits[cells[k] >>> 6] |= 1L << cells[k];
+        }
+        list = null;
+      }else{
+        list = Arrays.copyOf(cells, size);
+        bits = null;
+      }
+    }
+
+    /* Reveals or hides every Cell of the patch. */
+    private void restore(BoardModel board, boolean isRevealed){
+      if(list != null){
+        for(int i : list){
+          board.restoreCell(i, isRevealed, board.isFlagged(i));
+        }
+        return;
+      }
+      for(int w = 0; w < bits.length; w++){
+        long word = bits[w];
+        while(word != 0){
+          int i = w * 64 + Long.numberOfTrailingZeros(word);
+          board.restoreCell(i, isRevealed, board.isFlagged(i));
+          word &= word - 1;
+        }
+      }
+    }
+
+    private long getMemoryUsage(){
+      return 16 + (list != null ? 16 + 4L * list.length : 16 + 8L * bits.length);
+    }
+  }
+
+}
@@ -0,0 +1,350 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Records every move of every game into a columnar file for offline
+ * analysis; see TelemetryReader.
+ *
+ * The event thread only stores a few primitives into a single-producer
+ * ring buffer and publishes them with an ordered write: it never locks,
+ * allocates or waits. When the ring is full the move is dropped and
+ * counted instead. A background thread drains the ring, builds the
+ * columns of the game in progress and appends the game as one segment
+ * when it ends.
+ *
+ * The file starts with an int magic and an int version, then holds
+ * segments, big-endian:
+ *   int length of the rest of the segment
+ *   long seed, long start (epoch milliseconds), short rows, short cols,
+ *   int mines, byte result, int moves, then the byte length of each column
+ *   time column: varint milliseconds since the previous move (the first
+ *                since the game started)
+ *   type column: one byte per move, REVEAL, FLAG or CHORD
+ *   cell column: zigzag varint of the Cell index minus the previous one
+ *   int CRC32 of the segment from the seed on
+ * A segment torn by a crash is cut off when the file is opened again.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class MoveTelemetry{
+  /** Move type: left click. */
+  public static final byte REVEAL = 0;
+  /** Move type: right click, putting or taking off a flag. */
+  public static final byte FLAG = 1;
+  /** Move type: left and right click together. */
+  public static final byte CHORD = 2;
+  /** Result of a game left for another one. */
+  public static final byte ABANDONED = 0;
+  /** Result of a game won. */
+  public static final byte WON = 1;
+  /** Result of a game lost. */
+  public static final byte LOST = 2;
+
+  static final int MAGIC = 0x4D54454C; // "MTEL"
+  static final int VERSION = 1;
+  static final int FILE_HEADER_SIZE = 4 + 4;
+  // seed, start, rows, cols, mines, result, moves, three column lengths
+  static final int SEGMENT_HEADER_SIZE = 8 + 8 + 2 + 2 + 4 + 1 + 4 + 4 * 3;
+  private static final byte START = 8;
+  private static final byte END = 9;
+  private static final int RING_SIZE = 1 << 14; // a power of 2
+  private static final int RING_MASK = RING_SIZE - 1;
+  private static final long WRITER_PARK_NANOS = 20000000L;
+
+  // ring buffer: one slot per event, parallel arrays of primitives
+  private final byte[] kinds = new byte[RING_SIZE];
+  private final long[] times = new long[RING_SIZE];
+  private final long[] values = new long[RING_SIZE];
+  private final int[] indexes = new int[RING_SIZE];
+  private final int[] extras = new int[RING_SIZE];
+  // next slot the event thread writes; next slot the writer reads
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private long headCache; // the event thread's copy of head
+  private volatile long droppedCount;
+  private volatile boolean isClosed;
+
+  private FileChannel channel;
+  private Thread writer;
+  // game being built by the writer
+  private boolean hasGame;
+  private long seed;
+  private long startNanos;
+  private long startMillis;
+  private int row;
+  private int col;
+  private int mines;
+  private int movesCount;
+  private long lastMillis;
+  private int lastIndex;
+  private Column timeColumn;
+  private Column typeColumn;
+  private Column cellColumn;
+  private ByteBuffer segment;
+  private CRC32 crc;
+
+  /**
+   * Opens the file, creating it if needed, and starts the writer.
+   * @param file Telemetry file.
+   * @throws IOException If the file cannot be read or written, or is not
+   *                     a telemetry file.
+   */
+  public MoveTelemetry(File file) throws IOException{
+    if(file.getParentFile() != null){
+      file.getParentFile().mkdirs();
+    }
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                               StandardOpenOption.WRITE);
+    try{
+      openFile();
+    }catch(IOException e){
+      channel.close();
+      throw e;
+    }
+    timeColumn = new Column();
+    typeColumn = new Column();
+    cellColumn = new Column();
+    segment = ByteBuffer.allocate(1024);
+    crc = new CRC32();
+    writer = new Thread(new Runnable(){
+      public void run(){
+        drain();
+      }
+    }, "Move telemetry");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /* Writes the file header, or checks it and cuts off a torn segment. */
+  private void openFile() throws IOException{
+    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+    long size = channel.size();
+    if(size == 0){
+      header.putInt(MAGIC).putInt(VERSION).flip();
+      channel.write(header, 0);
+      return;
+    }
+    channel.read(header, 0);
+    header.flip();
+    if(header.remaining() < FILE_HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION){
+      throw new IOException("Not a telemetry file.");
+    }
+    long position = FILE_HEADER_SIZE;
+    ByteBuffer length = ByteBuffer.allocate(4);
+    while(position < size){
+      length.clear();
+      if(channel.read(length, position) < 4){
+        break;
+      }
+      long end = position + 4 + length.getInt(0);
+      if(length.getInt(0) < SEGMENT_HEADER_SIZE + 4 || end > size){
+        break;
+      }
+      position = end;
+    }
+    if(position < size){
+      channel.truncate(position);
+    }
+  }
+
+  /**
+   * Marks the start of a game; an unfinished game is kept as ABANDONED.
+   * Only the event thread may record.
+   * @param seed Seed of the mine layout.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param mines Number of mines.
+   */
+  public void startGame(long seed, int row, int col, int mines){
+    publish(START, seed, (row << 16) | col, mines);
+  }
+
+  /**
+   * Records a move of the player, before it is applied.
+   * Only the event thread may record.
+   * @param type REVEAL, FLAG or CHORD.
+   * @param index Cell index, row * cols + col.
+   */
+  public void recordMove(byte type, int index){
+    publish(type, 0, index, 0);
+  }
+
+  /**
+   * Marks the end of the game. Only the event thread may record.
+   * @param result WON or LOST.
+   */
+  public void endGame(byte result){
+    publish(END, result, 0, 0);
+  }
+
+  /* Stores one event, or counts it dropped when the writer is a ring behind. */
+  private void publish(byte kind, long value, int index, int extra){
+    long h = headCache;
+    if(h - tail.get() >= RING_SIZE){
+      droppedCount++; // only the event thread writes it
+      return;
+    }
+    int slot = (int) h & RING_MASK;
+    kinds[slot] = kind;
+    times[slot] = System.nanoTime();
+    values[slot] = value;
+    indexes[slot] = index;
+    extras[slot] = extra;
+    headCache = h + 1;
+    head.lazySet(h + 1); // ordered after the slot, without a full fence
+  }
+
+  /**
+   * Returns the number of events dropped because the ring was full.
+   * @return The number of dropped events.
+   */
+  public long getDroppedCount(){
+    return droppedCount;
+  }
+
+  /** Writes what is left, keeping an unfinished game, and closes the file. */
+  public void close(){
+    isClosed = true;
+    LockSupport.unpark(writer);
+    try{
+      writer.join();
+    }catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /* Writer thread: turns events into columns until closed. */
+  private void drain(){
+    long t = tail.get();
+    try{
+      while(true){
+        boolean isLast = isClosed; // read before head, so no event is missed
+        long h = head.get();
+        if(t == h){
+          if(isLast){
+            if(hasGame){
+              writeGame(ABANDONED);
+            }
+            return;
+          }
+          LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+          continue;
+        }
+        for(; t < h; t++){
+          int slot = (int) t & RING_MASK;
+          handle(kinds[slot], times[slot], values[slot], indexes[slot], extras[slot]);
+        }
+        tail.lazySet(t);
+      }
+    }catch(IOException e){
+      System.err.println("Move telemetry stopped: " + e.getMessage());
+    }finally{
+      try{
+        channel.force(false);
+        channel.close();
+      }catch(IOException e){
+        // nothing more to save
+      }
+    }
+  }
+
+  private void handle(byte kind, long time, long value, int index, int extra) throws IOException{
+    if(kind == START){
+      if(hasGame){
+        writeGame(ABANDONED);
+      }
+      hasGame = true;
+      seed = value;
+      row = index >>> 16;
+      col = index & 0xFFFF;
+      mines = extra;
+      startNanos = time;
+      startMillis = System.currentTimeMillis() - (System.nanoTime() - time) / 1000000;
+      movesCount = 0;
+      lastMillis = 0;
+      lastIndex = 0;
+      timeColumn.size = 0;
+      typeColumn.size = 0;
+      cellColumn.size = 0;
+    }else if(! hasGame ){
+      return; // moves of a game started before the telemetry
+    }else if(kind == END){
+      writeGame((byte) value);
+    }else{
+      long millis = (time - startNanos) / 1000000;
+      timeColumn.putVarint(millis - lastMillis);
+      typeColumn.put(kind);
+      int delta = index - lastIndex;
+      cellColumn.putVarint(((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL);
+      lastMillis = millis;
+      lastIndex = index;
+      movesCount++;
+    }
+  }
+
+  /* Appends the game as one segment; a game without moves is skipped. */
+  private void writeGame(byte result) throws IOException{
+    hasGame = false;
+    if(movesCount == 0){
+      return;
+    }
+    int length = SEGMENT_HEADER_SIZE + timeColumn.size + typeColumn.size + cellColumn.size + 4;
+    if(segment.capacity() < 4 + length){
+      segment = ByteBuffer.allocate(Math.max(4 + length, 2 * segment.capacity()));
+    }
+    segment.clear();
+    segment.putInt(length);
+    segment.putLong(seed);
+    segment.putLong(startMillis);
+    segment.putShort((short) row);
+    segment.putShort((short) col);
+    segment.putInt(mines);
+    segment.put(result);
+    segment.putInt(movesCount);
+    segment.putInt(timeColumn.size);
+    segment.putInt(typeColumn.size);
+    segment.putInt(cellColumn.size);
+    segment.put(timeColumn.bytes, 0, timeColumn.size);
+    segment.put(typeColumn.bytes, 0, typeColumn.size);
+    segment.put(cellColumn.bytes, 0, cellColumn.size);
+    crc.reset();
+    crc.update(segment.array(), 4, segment.position() - 4);
+    segment.putInt((int) crc.getValue());
+    segment.flip();
+    long position = channel.size();
+    while(segment.hasRemaining()){
+      position += channel.write(segment, position);
+    }
+  }
+
+  /** Growing array of bytes of one column. */
+  private static class Column{
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    private void put(int b){
+      if(size == bytes.length){
+        bytes = Arrays.copyOf(bytes, 2 * size);
+      }
+      bytes[size++] = (byte) b;
+    }
+
+    /* Unsigned LEB128: 7 bits per byte, high bit set on all but the last. */
+    private void putVarint(long value){
+      while((value & ~0x7FL) != 0){
+        put((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      put((int) value);
+    }
+  }
+
+}
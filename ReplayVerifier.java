@@ -0,0 +1,308 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+/**
+ * Checks submitted games by playing their moves again on a BoardModel,
+ * which follows the rules of GameBoard. Every replay file of a directory
+ * gets one verdict line in the report; the files are streamed from the
+ * directory and spread over worker threads, each reusing one board.
+ *
+ * A replay file, one entry per line ('#' starts a comment):
+ *   board rows cols mines seed
+ *   time milliseconds              (the time claimed for the win)
+ *   milliseconds r|f|c row col     (one per move, from the first click)
+ *
+ * Report lines are tab-separated: file, verdict, 3BV, moves, time, reason.
+ * A replay is INVALID when it cannot have been played (bad format, a move
+ * outside the board or after the game ended, times going backwards, no
+ * win, a claimed time not matching its last move), and SUSPICIOUS when
+ * it was possible but not for a human (clicks closer than MIN_MOVE_MILLIS
+ * or more than MAX_3BV_PER_SECOND).
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class ReplayVerifier{
+  public static final String VALID = "VALID";
+  public static final String SUSPICIOUS = "SUSPICIOUS";
+  public static final String INVALID = "INVALID";
+  /** Shortest time between two clicks of a human. */
+  public static final int MIN_MOVE_MILLIS = 40;
+  /** Fastest sustained pace of a human, well above the records. */
+  public static final double MAX_3BV_PER_SECOND = 12.0;
+  /** How far the claimed time may be from the last move. */
+  public static final int TIME_SLACK_MILLIS = 50;
+  // larger boards are not played by humans and would cost too much memory
+  private static final int MAX_CELLS = 1 << 20;
+
+  private BoardModel board;
+  private String reason;
+  private int movesCount;
+  private int bbbv;
+  private long claimedMillis;
+
+  /**
+   * Verifies one replay.
+   * @param in The replay, read to its end.
+   * @return VALID, SUSPICIOUS or INVALID; see getReason().
+   * @throws IOException If in cannot be read.
+   */
+  public String verify(BufferedReader in) throws IOException{
+    reason = "";
+    movesCount = 0;
+    bbbv = 0;
+    claimedMillis = -1;
+    boolean hasBoard = false;
+    boolean isSuspicious = false;
+    long previousMillis = -1;
+    long lastMillis = 0;
+    String line;
+    try{
+      while((line = in.readLine()) != null){
+        line = line.trim();
+        if(line.isEmpty() || line.charAt(0) == '#'){
+          continue;
+        }
+        String[] token = line.split(" ");
+        if( token[0].equals("board") ){
+          if(hasBoard){
+            return invalid("Second board.");
+          }
+          if(! newBoard(Integer.parseInt(token[1]), Integer.parseInt(token[2]),
+                        Integer.parseInt(token[3]), Long.parseLong(token[4])) ){
+            return INVALID;
+          }
+          hasBoard = true;
+          continue;
+        }
+        if( token[0].equals("time") ){
+          claimedMillis = Long.parseLong(token[1]);
+          continue;
+        }
+        if(! hasBoard ){
+          return invalid("Move before the board.");
+        }
+        long millis = Long.parseLong(token[0]);
+        int row = Integer.parseInt(token[2]);
+        int col = Integer.parseInt(token[3]);
+        movesCount++;
+        if(millis < 0 || millis < previousMillis){
+          return invalid("Move " + movesCount + " goes back in time.");
+        }
+        if(row < 0 || row >= board.getRow() || col < 0 || col >= board.getCol()){
+          return invalid("Move " + movesCount + " is out of game bounds.");
+        }
+        if( board.isGameOver() ){
+          return invalid("Move " + movesCount + " after the game ended.");
+        }
+        if(previousMillis >= 0 && millis - previousMillis < MIN_MOVE_MILLIS && !isSuspicious){
+          isSuspicious = true;
+          reason = "Move " + movesCount + " " + (millis - previousMillis) + " ms after the last.";
+        }
+        int index = board.indexOf(row, col);
+        switch(token[1]){
+          case "r":
+            board.reveal(index);
+            break;
+          case "f":
+            board.flag(index);
+            break;
+          case "c":
+            board.wideReveal(index);
+            break;
+          default:
+            return invalid("Move " + movesCount + " is unknown.");
+        }
+        previousMillis = millis;
+        lastMillis = millis;
+      }
+    }catch(NumberFormatException e){
+      return invalid("Expected numbers.");
+    }catch(ArrayIndexOutOfBoundsException e){
+      return invalid("Missing arguments.");
+    }
+    if(! hasBoard ){
+      return invalid("No board.");
+    }
+    if(! board.isVictory() ){
+      return invalid("Game was not won.");
+    }
+    if(claimedMillis < 0){
+      return invalid("No time claimed.");
+    }
+    if(Math.abs(claimedMillis - lastMillis) > TIME_SLACK_MILLIS){
+      return invalid("Claimed " + claimedMillis + " ms, last move at " + lastMillis + " ms.");
+    }
+    if(bbbv > MAX_3BV_PER_SECOND * claimedMillis / 1000.0){
+      return suspicious(String.format("%.1f 3BV/s.", claimedMillis > 0 ? bbbv * 1000.0 / claimedMillis
+                                                                       : Double.POSITIVE_INFINITY));
+    }
+    return isSuspicious ? SUSPICIOUS : VALID;
+  }
+
+  /* Lays the seed out, reusing the board when the size is the same. */
+  private boolean newBoard(int row, int col, int mines, long seed){
+    if(row <= 0 || col <= 0 || (long) row * col > MAX_CELLS || mines < 0 || mines >= row * col){
+      invalid("Invalid board size.");
+      return false;
+    }
+    if(board == null || board.getRow() != row || board.getCol() != col
+         || board.getTotalMinesCount() != mines){
+      board = new BoardModel(row, col, mines);
+    }
+    board.newGame(seed);
+    bbbv = BoardMetrics.compute(BoardMetrics.minesOf(board), board.getTopology()).get3BV();
+    return true;
+  }
+
+  private String invalid(String reason){
+    this.reason = reason;
+    return INVALID;
+  }
+
+  private String suspicious(String reason){
+    this.reason = reason;
+    return SUSPICIOUS;
+  }
+
+  /**
+   * Returns why the last replay was not VALID, or "".
+   * @return The reason of the last verdict.
+   */
+  public String getReason(){
+    return reason;
+  }
+
+  /**
+   * Returns the number of moves read from the last replay.
+   * @return The number of moves.
+   */
+  public int getMovesCount(){
+    return movesCount;
+  }
+
+  /**
+   * Returns the 3BV of the board of the last replay, 0 if it had none.
+   * @return The 3BV of the board.
+   */
+  public int get3BV(){
+    return bbbv;
+  }
+
+  /**
+   * Returns the time claimed by the last replay, -1 if it claimed none.
+   * @return The claimed time in milliseconds.
+   */
+  public long getClaimedMillis(){
+    return claimedMillis;
+  }
+
+  /**
+   * Verifies every replay of a directory into a report.
+   * @param dir Directory of replays.
+   * @param glob Names of the replays, like "*.replay".
+   * @param report Where verdict lines are written, in no particular order.
+   * @param threads Number of worker threads.
+   * @return Number of replays per verdict: VALID, SUSPICIOUS, INVALID.
+   * @throws IOException If the directory or the report fails.
+   * @throws InterruptedException If interrupted while waiting for the workers.
+   * @throws IllegalArgumentException If threads is not positive.
+   */
+  public static int[] verifyAll(Path dir, String glob, final Writer report, int threads)
+      throws IOException, InterruptedException{
+    if(threads <= 0){
+      throw new IllegalArgumentException("Expected positive threads.");
+    }
+    final int[] counts = new int[3];
+    final IOException[] failure = new IOException[1];
+    DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob);
+    try{
+      // the stream is only walked once, shared by the workers
+      final Iterator<Path> files = stream.iterator();
+      Thread[] workers = new Thread[threads];
+      for(int t = 0; t < threads; t++){
+        workers[t] = new Thread(new Runnable(){
+          public void run(){
+            ReplayVerifier verifier = new ReplayVerifier();
+            StringBuilder out = new StringBuilder();
+            while(true){
+              Path file;
+              synchronized(files){
+                if(! files.hasNext() ){
+                  return;
+                }
+                file = files.next();
+              }
+              String verdict;
+              try{
+                BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                try{
+                  verdict = verifier.verify(in);
+                }finally{
+                  in.close();
+                }
+              }catch(IOException e){
+                verdict = verifier.invalid("Cannot read: " + e.getMessage());
+              }
+              out.setLength(0);
+              out.append(file.getFileName()).append('\t').append(verdict).append('\t')
+                .append(verifier.bbbv).append('\t').append(verifier.movesCount).append('\t')
+                .append(verifier.claimedMillis).append('\t').append(verifier.reason).append('\n');
+              synchronized(report){
+                counts[verdict == VALID ? 0 : verdict == SUSPICIOUS ? 1 : 2]++;
+                try{
+                  report.write(out.toString());
+                }catch(IOException e){
+                  failure[0] = e;
+                  return;
+                }
+              }
+            }
+          }
+        }, "Replay verifier " + t);
+        workers[t].start();
+      }
+      for(Thread t : workers){
+        t.join();
+      }
+    }finally{
+      stream.close();
+    }
+    if(failure[0] != null){
+      throw failure[0];
+    }
+    return counts;
+  }
+
+  /**
+   * Verifies a directory of replays and prints the totals.
+   * @param args dir report [threads] [glob]
+   */
+  public static void main(String[] args) throws IOException, InterruptedException{
+    if(args.length < 2){
+      System.err.println("Usage: ReplayVerifier dir report [threads] [glob]");
+      return;
+    }
+    int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    String glob = args.length > 3 ? args[3] : "*.replay";
+    long start = System.nanoTime();
+    BufferedWriter report = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8);
+    int[] counts;
+    try{
+      counts = verifyAll(Paths.get(args[0]), glob, report, threads);
+    }finally{
+      report.close();
+    }
+    System.out.printf("%d valid, %d suspicious, %d invalid in %.1f s%n", counts[0], counts[1], counts[2],
+                      (System.nanoTime() - start) / 1e9);
+  }
+
+}
@@ -0,0 +1,85 @@
+import java.util.Date;
+
+/**
+ * One won game, as kept by the ScoreStore.
+ * 
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public final class Score{
+  private final Difficulty difficulty;
+  private final long seed;
+  private final long timeNanos;
+  private final int bbbv;
+  private final long date;
+  
+  /**
+   * Starts a Score.
+   * @param difficulty Difficulty of the game.
+   * @param seed Seed of the mine layout.
+   * @param timeNanos Time to win in nanoseconds.
+   * @param bbbv 3BV of the layout.
+   * @param date When the game was won, in milliseconds since the epoch.
+   * @throws IllegalArgumentException If difficulty is null.
+   */
+  public Score(Difficulty difficulty, long seed, long timeNanos, int bbbv, long date){
+    if(difficulty == null){
+      throw new IllegalArgumentException("Expected difficulty.");
+    }
+    this.difficulty = difficulty;
+    this.seed = seed;
+    this.timeNanos = timeNanos;
+    this.bbbv = bbbv;
+    this.date = date;
+  }
+  
+  /**
+   * Returns the difficulty of the game.
+   * @return The difficulty of the game.
+   */
+  public Difficulty getDifficulty(){
+    return difficulty;
+  }
+  
+  /**
+   * Returns the seed of the mine layout.
+   * @return The seed of the mine layout.
+   */
+  public long getSeed(){
+    return seed;
+  }
+  
+  /**
+   * Returns the time to win in nanoseconds.
+   * @return The time to win in nanoseconds.
+   */
+  public long getTimeNanos(){
+    return timeNanos;
+  }
+  
+  /**
+   * Returns the 3BV of the layout.
+   * @return The 3BV of the layout.
+   */
+  public int get3BV(){
+    return bbbv;
+  }
+  
+  /**
+   * Returns when the game was won, in milliseconds since the epoch.
+   * @return When the game was won.
+   */
+  public long getDate(){
+    return date;
+  }
+  
+  /**
+   * Returns the score as one line of text.
+   * @return Time, 3BV and date.
+   */
+  @Override
+  public String toString(){
+    return String.format("%.3f s  (3BV %d, %tF)", timeNanos / 1e9, bbbv, new Date(date));
+  }
+  
+}
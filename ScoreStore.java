@@ -0,0 +1,389 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every won game in an append-only log file and answers top-N and
+ * percentile queries per difficulty.
+ *
+ * Each record has a fixed size and ends with a CRC32. An incomplete
+ * record at the end, torn by a crash, is cut off on the next start; a
+ * whole record failing its checksum is skipped and counted, so one bad
+ * record never costs the ones after it. The index holds
+ * only primitive arrays of times and record numbers; startup streams the
+ * log through one buffer without creating an object per game.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class ScoreStore{
+  // seed, time, date, 3BV, difficulty, crc
+  private static final int RECORD_SIZE = 8 + 8 + 8 + 4 + 4 + 4;
+  private static final int RECORDS_PER_READ = 4096;
+
+  private FileChannel channel;
+  private ScoreIndex[] indexes;
+  // records in the log, skipped ones included, so a record number is its slot
+  private int recordsCount;
+  private int corruptCount;
+  private ByteBuffer record;
+  private CRC32 crc;
+
+  /**
+   * Opens the log, creating it if needed, and indexes it.
+   * @param file Log file.
+   * @throws IOException If the file cannot be read or written.
+   */
+  public ScoreStore(File file) throws IOException{
+    if(file.getParentFile() != null){
+      file.getParentFile().mkdirs();
+    }
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                               StandardOpenOption.WRITE);
+    indexes = new ScoreIndex[Difficulty.values().length];
+    for(int d = 0; d < indexes.length; d++){
+      indexes[d] = new ScoreIndex();
+    }
+    record = ByteBuffer.allocate(RECORD_SIZE);
+    crc = new CRC32();
+    load();
+  }
+
+  /* Streams the log into the indexes, cutting off a torn tail. */
+  private void load() throws IOException{
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_READ);
+    long position = 0;
+    while(true){
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if(read <= 0){
+        break;
+      }
+      buffer.flip();
+      while(buffer.remaining() >= RECORD_SIZE){
+        int start = buffer.position();
+        crc.reset();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        long seed = buffer.getLong();
+        long timeNanos = buffer.getLong();
+        buffer.getLong(); // date
+        buffer.getInt(); // 3BV
+        int difficulty = buffer.getInt();
+        int check = buffer.getInt();
+        if(check != (int) crc.getValue() || difficulty < 0 || difficulty >= indexes.length){
+          corruptCount++;
+        }else{
+          indexes[difficulty].append(timeNanos, recordsCount);
+        }
+        recordsCount++;
+        position += RECORD_SIZE;
+      }
+      if(buffer.remaining() == read){
+        break; // not one whole record left
+      }
+    }
+    // only an incomplete record can be left past the last whole one
+    if(channel.size() != position){
+      channel.truncate(position);
+    }
+    for(ScoreIndex index : indexes){
+      index.sort();
+    }
+  }
+
+  /**
+   * Appends a won game to the log and the index.
+   * @param score Won game.
+   * @throws IOException If the log cannot be written.
+   */
+  public void add(Score score) throws IOException{
+    record.clear();
+    record.putLong(score.getSeed());
+    record.putLong(score.getTimeNanos());
+    record.putLong(score.getDate());
+    record.putInt(score.get3BV());
+    record.putInt(score.getDifficulty().ordinal());
+    crc.reset();
+    crc.update(record.array(), 0, RECORD_SIZE - 4);
+    record.putInt((int) crc.getValue());
+    record.flip();
+    long position = (long) recordsCount * RECORD_SIZE;
+    while(record.hasRemaining()){
+      position += channel.write(record, position);
+    }
+    channel.force(false);
+    indexes[score.getDifficulty().ordinal()].add(score.getTimeNanos(), recordsCount);
+    recordsCount++;
+  }
+
+  /**
+   * Returns the number of records skipped as corrupt when the log was opened.
+   * @return The number of corrupt records.
+   */
+  public int getCorruptCount(){
+    return corruptCount;
+  }
+
+  /**
+   * Returns the number of won games of a difficulty.
+   * @param d Difficulty.
+   * @return The number of won games.
+   */
+  public int count(Difficulty d){
+    return indexes[d.ordinal()].size();
+  }
+
+  /**
+   * Returns the fastest games of a difficulty, fastest first.
+   * @param d Difficulty.
+   * @param n Maximum number of games.
+   * @return Up to n fastest games.
+   * @throws IOException If the log cannot be read.
+   */
+  public List<Score> top(Difficulty d, int n) throws IOException{
+    ScoreIndex index = indexes[d.ordinal()];
+    List<Score> scores = new ArrayList<Score>();
+    for(int k = 0; k < Math.min(n, index.size()); k++){
+      scores.add(read(index.recordAt(k)));
+    }
+    return scores;
+  }
+
+  /**
+   * Returns the time below which the given fraction of games were won.
+   * @param d Difficulty.
+   * @param fraction Between 0 and 1, e.g. 0.5 for the median.
+   * @return Time in nanoseconds, or -1 if no game was won.
+   * @throws IllegalArgumentException If fraction is not between 0 and 1.
+   */
+  public long percentile(Difficulty d, double fraction){
+    if(fraction < 0 || fraction > 1){
+      throw new IllegalArgumentException("Expected fraction between 0 and 1.");
+    }
+    ScoreIndex index = indexes[d.ordinal()];
+    if(index.size() == 0){
+      return -1;
+    }
+    return index.timeAt((int) Math.min(index.size() - 1, (long) (fraction * index.size())));
+  }
+
+  /**
+   * Returns how many games of a difficulty were won faster.
+   * @param d Difficulty.
+   * @param timeNanos Time in nanoseconds.
+   * @return The number of strictly faster games.
+   */
+  public int rank(Difficulty d, long timeNanos){
+    return indexes[d.ordinal()].rank(timeNanos);
+  }
+
+  /** Closes the log. */
+  public void close() throws IOException{
+    channel.close();
+  }
+
+  /* Reads one record back from the log. */
+  private Score read(int recordNumber) throws IOException{
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+    long position = (long) recordNumber * RECORD_SIZE;
+    while(buffer.hasRemaining()){
+      if(channel.read(buffer, position + buffer.position()) < 0){
+        throw new IOException("Score log is shorter than its index.");
+      }
+    }
+    buffer.flip();
+    long seed = buffer.getLong();
+    long timeNanos = buffer.getLong();
+    long date = buffer.getLong();
+    int bbbv = buffer.getInt();
+    Difficulty d = Difficulty.values()[buffer.getInt()];
+    return new Score(d, seed, timeNanos, bbbv, date);
+  }
+
+  /**
+   * Times of one difficulty in order, with the record of each. New times
+   * go to a small sorted buffer that is merged into the main arrays once
+   * it grows past the square root of their size. Queries search both in
+   * O(log n); an insert costs O(sqrt n) amortized.
+   */
+  private static class ScoreIndex{
+    private static final int MIN_BUFFER = 64;
+
+    private long[] times = new long[MIN_BUFFER];
+    private int[] records = new int[MIN_BUFFER];
+    private int loadedSize;
+    private long[] newTimes = new long[MIN_BUFFER];
+    private int[] newRecords = new int[MIN_BUFFER];
+    private int newSize;
+
+    /* While loading: appends unsorted; sort() must follow. */
+    private void append(long time, int record){
+      if(loadedSize == times.length){
+        times = Arrays.copyOf(times, loadedSize * 2);
+        records = Arrays.copyOf(records, loadedSize * 2);
+      }
+      times[loadedSize] = time;
+      records[loadedSize] = record;
+      loadedSize++;
+    }
+
+    /* Ends loading: sorts what was appended with a bottom-up merge sort. */
+    private void sort(){
+      long[] t = Arrays.copyOf(times, loadedSize);
+      int[] r = Arrays.copyOf(records, loadedSize);
+      long[] tmpTimes = new long[loadedSize];
+      int[] tmpRecords = new int[loadedSize];
+      for(int width = 1; width < loadedSize; width *= 2){
+        for(int from = 0; from < loadedSize; from += 2 * width){
+          int mid = Math.min(from + width, loadedSize);
+          int to = Math.min(from + 2 * width, loadedSize);
+          int a = from;
+          int b = mid;
+          for(int k = from; k < to; k++){
+            if(b == to || (a < mid && t[a] <= t[b])){
+              tmpTimes[k] = t[a];
+              tmpRecords[k] = r[a++];
+            }else{
+              tmpTimes[k] = t[b];
+              tmpRecords[k] = r[b++];
+            }
+          }
+        }
+        long[] swapTimes = t;
+        t = tmpTimes;
+        tmpTimes = swapTimes;
+        int[] swapRecords = r;
+        r = tmpRecords;
+        tmpRecords = swapRecords;
+      }
+      times = t;
+      records = r;
+      newSize = 0;
+      int capacity = Math.max(MIN_BUFFER, (int) Math.sqrt(times.length));
+      newTimes = new long[capacity];
+      newRecords = new int[capacity];
+    }
+
+    private int size(){
+      return times.length + newSize;
+    }
+
+    /* Inserts into the buffer, keeping it sorted; merges when full. */
+    private void add(long time, int record){
+      if(newSize == newTimes.length){
+        merge();
+      }
+      int k = upperBound(newTimes, newSize, time);
+      System.arraycopy(newTimes, k, newTimes, k + 1, newSize - k);
+      System.arraycopy(newRecords, k, newRecords, k + 1, newSize - k);
+      newTimes[k] = time;
+      newRecords[k] = record;
+      newSize++;
+    }
+
+    /* Merges the buffer into the main arrays and resizes the buffer. */
+    private void merge(){
+      long[] mergedTimes = new long[size()];
+      int[] mergedRecords = new int[size()];
+      int a = 0;
+      int b = 0;
+      for(int k = 0; k < mergedTimes.length; k++){
+        if(b == newSize || (a < times.length && times[a] <= newTimes[b])){
+          mergedTimes[k] = times[a];
+          mergedRecords[k] = records[a++];
+        }else{
+          mergedTimes[k] = newTimes[b];
+          mergedRecords[k] = newRecords[b++];
+        }
+      }
+      times = mergedTimes;
+      records = mergedRecords;
+      newSize = 0;
+      int capacity = Math.max(MIN_BUFFER, (int) Math.sqrt(times.length));
+      if(capacity != newTimes.length){
+        newTimes = new long[capacity];
+        newRecords = new int[capacity];
+      }
+    }
+
+    /* Number of times strictly below time. */
+    private int rank(long time){
+      return lowerBound(times, times.length, time) + lowerBound(newTimes, newSize, time);
+    }
+
+    /* The k-th smallest time. */
+    private long timeAt(int k){
+      int pos = positionOf(k);
+      return pos >= 0 ? times[pos] : newTimes[-pos - 1];
+    }
+
+    /* The record of the k-th smallest time. */
+    private int recordAt(int k){
+      int pos = positionOf(k);
+      return pos >= 0 ? records[pos] : newRecords[-pos - 1];
+    }
+
+    /*
+     * Finds the k-th smallest of both sorted arrays in O(log n): returns
+     * its position in times, or -(position in newTimes) - 1.
+     */
+    private int positionOf(int k){
+      // take i from times and k - i from newTimes; search the split i
+      int low = Math.max(0, k + 1 - newSize);
+      int high = Math.min(k + 1, times.length);
+      while(low < high){
+        int i = (low + high) >>> 1;
+        int j = k + 1 - i;
+        if(j > 0 && i < times.length && times[i] < newTimes[j - 1]){
+          low = i + 1;
+        }else{
+          high = i;
+        }
+      }
+      int i = low;
+      int j = k + 1 - i;
+      if(j == 0){
+        return i - 1;
+      }
+      if(i == 0 || newTimes[j - 1] >= times[i - 1]){
+        return -(j - 1) - 1;
+      }
+      return i - 1;
+    }
+
+    private static int lowerBound(long[] values, int size, long value){
+      int low = 0;
+      int high = size;
+      while(low < high){
+        int mid = (low + high) >>> 1;
+        if(values[mid] < value){
+          low = mid + 1;
+        }else{
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private static int upperBound(long[] values, int size, long value){
+      int low = 0;
+      int high = size;
+      while(low < high){
+        int mid = (low + high) >>> 1;
+        if(values[mid] <= value){
+          low = mid + 1;
+        }else{
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+}
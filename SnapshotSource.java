@@ -0,0 +1,13 @@
+/**
+ * Anything that publishes immutable snapshots of a game.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public interface SnapshotSource{
+  /**
+   * Returns the latest snapshot; safe to call from any thread.
+   * @return The latest published snapshot.
+   */
+  public GameSnapshot getSnapshot();
+}
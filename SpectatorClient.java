@@ -0,0 +1,218 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Watches a game streamed by SpectatorServer: applies keyframes and
+ * deltas to a local copy of the board.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class SpectatorClient{
+  private DataInputStream in;
+  // the frame being read, read whole before it is applied
+  private ByteBuffer buffer;
+  private byte[] cells;
+  private int row;
+  private int col;
+  private int frame;
+  private int status;
+  private int totalFlagsCount;
+  private int timeMillis;
+  private boolean hasKeyframe;
+
+  /**
+   * Reads frames from a stream.
+   * @param in Stream of frames.
+   */
+  public SpectatorClient(InputStream in){
+    this.in = new DataInputStream(new BufferedInputStream(in));
+    cells = new byte[0];
+    buffer = ByteBuffer.allocate(1024);
+  }
+
+  /**
+   * Reads and applies the next frame; blocks until it arrives.
+   * @return False at the end of the stream.
+   * @throws IOException If the stream fails or a frame is malformed.
+   */
+  public boolean readFrame() throws IOException{
+    int length;
+    try{
+      length = in.readInt();
+    }catch(EOFException e){
+      return false;
+    }
+    if(buffer.capacity() < length){
+      buffer = ByteBuffer.allocate(length);
+    }
+    buffer.clear();
+    buffer.limit(length);
+    in.readFully(buffer.array(), 0, length);
+    try{
+      byte type = buffer.get();
+      frame = buffer.getInt();
+      status = buffer.get();
+      totalFlagsCount = buffer.getShort();
+      timeMillis = buffer.getInt();
+      if(type == SpectatorServer.KEYFRAME){
+        row = buffer.getShort();
+        col = buffer.getShort();
+        if(cells.length != row * col){
+          cells = new byte[row * col];
+        }
+        buffer.get(cells);
+        hasKeyframe = true;
+      }else if(type == SpectatorServer.DELTA){
+        int changes = readVarint();
+        int index = -1;
+        for(int k = 0; k < changes; k++){
+          index += readVarint() + 1;
+          byte cell = buffer.get();
+          if(hasKeyframe){
+            cells[index] = cell;
+          }
+        }
+      }else{
+        return true; // unknown frames are skipped whole
+      }
+    }catch(BufferUnderflowException | IndexOutOfBoundsException e){
+      throw new IOException("Malformed frame " + frame + ".");
+    }
+    if( buffer.hasRemaining() ){
+      throw new IOException("Malformed frame " + frame + ".");
+    }
+    return true;
+  }
+
+  private int readVarint(){
+    int value = 0;
+    for(int shift = 0; ; shift += 7){
+      int b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if((b & 0x80) == 0){
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of the last frame read.
+   * @return The number of the last frame read.
+   */
+  public int getFrame(){
+    return frame;
+  }
+
+  /**
+   * Returns the number of rows, 0 before the first keyframe.
+   * @return The number of rows.
+   */
+  public int getRow(){
+    return row;
+  }
+
+  /**
+   * Returns the number of cols, 0 before the first keyframe.
+   * @return The number of cols.
+   */
+  public int getCol(){
+    return col;
+  }
+
+  /**
+   * Returns the visible state of a Cell, in the encoding of GameSnapshot.
+   * @param row Row position.
+   * @param col Col position.
+   * @return Mines count, MINED, HIDDEN or FLAGGED.
+   */
+  public byte getCell(int row, int col){
+    return cells[row * this.col + col];
+  }
+
+  /**
+   * Returns a copy of every Cell, row after row.
+   * @return Visible state of every Cell.
+   */
+  public byte[] getCells(){
+    return Arrays.copyOf(cells, cells.length);
+  }
+
+  /**
+   * Returns true if the game was being played.
+   * @return True if the game was being played.
+   */
+  public boolean isPlaying(){
+    return (status & 1) != 0;
+  }
+
+  /**
+   * Returns true if game was over.
+   * @return True if game was over.
+   */
+  public boolean isGameOver(){
+    return (status & 2) != 0;
+  }
+
+  /**
+   * Returns total flags count.
+   * @return Total flags count.
+   */
+  public int getTotalFlagsCount(){
+    return totalFlagsCount;
+  }
+
+  /**
+   * Returns the seconds played.
+   * @return The seconds played.
+   */
+  public double getTimeElapsed(){
+    return timeMillis / 1000.0;
+  }
+
+  /**
+   * Prints the board whenever a Cell changes.
+   * @param args Optional port number.
+   */
+  public static void main(String[] args) throws IOException{
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : SpectatorServer.DEFAULT_PORT;
+    Socket socket = new Socket("127.0.0.1", port);
+    SpectatorClient client = new SpectatorClient(socket.getInputStream());
+    byte[] shown = new byte[0];
+    StringBuilder out = new StringBuilder();
+    while(client.readFrame()){
+      if(Arrays.equals(shown, client.cells)){
+        continue;
+      }
+      shown = client.getCells();
+      out.setLength(0);
+      for(int r = 0; r < client.row; r++){
+        for(int c = 0; c < client.col; c++){
+          byte cell = client.getCell(r, c);
+          if(cell == GameSnapshot.FLAGGED){
+            out.append('F');
+          }else if(cell == GameSnapshot.HIDDEN){
+            out.append('.');
+          }else if(cell < 0){
+            out.append('*');
+          }else{
+            out.append((char) ('0' + cell));
+          }
+        }
+        out.append('\n');
+      }
+      out.append("Flags ").append(client.totalFlagsCount).append(", ")
+        .append(client.timeMillis / 1000).append(" s\n");
+      System.out.print(out);
+    }
+    socket.close();
+  }
+
+}
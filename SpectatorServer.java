@@ -0,0 +1,404 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams one live game to many spectators on the loopback interface.
+ * Once per frame window the latest snapshot is compared with the last
+ * one sent (only rows that were written are scanned) and the changes are
+ * encoded once into a binary delta, then written to every spectator.
+ * The player's thread only publishes snapshots, as it already does.
+ *
+ * A spectator whose socket cannot take a whole frame keeps the rest in
+ * its own backlog and skips deltas until it drains; it then catches up
+ * with a keyframe, at most one every KEYFRAME_FRAMES frames.
+ *
+ * Frames, big-endian, after an int length of the rest:
+ *   byte type, int frame number, byte status, short flags, int milliseconds
+ *   KEYFRAME: short rows, short cols, then one byte per Cell
+ *   DELTA:    varint changes (padded to 4 bytes), then per change varint
+ *             gap, byte Cell
+ * where status has bit 1 for playing and bit 2 for game over, Cells use
+ * the encoding of GameSnapshot, and a gap is the number of Cells skipped
+ * since the previous change (row * cols + col order).
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class SpectatorServer{
+  public static final int DEFAULT_PORT = 4568;
+  public static final byte KEYFRAME = 1;
+  public static final byte DELTA = 2;
+  public static final int FRAME_MILLIS = 16;
+  public static final int KEYFRAME_FRAMES = 60;
+  private static final int HEADER_SIZE = 4 + 1 + 4 + 1 + 2 + 4;
+  private static final int COUNT_SIZE = 4;
+  // bounds what the kernel holds per spectator; the rest waits in its backlog
+  private static final int SEND_BUFFER = 32 * 1024;
+
+  private SnapshotSource source;
+  private GameSnapshot sent;
+  private int frame;
+  // each frame is encoded once into these and written to every spectator
+  private ByteBuffer delta;
+  private ByteBuffer keyframe;
+  private boolean isKeyframeEncoded;
+  private List<Spectator> spectators;
+  private ByteBuffer discard;
+  private SelectionKey acceptKey;
+  private long droppedFrames;
+  // set by close() from another thread
+  private volatile boolean isClosed;
+  private volatile Selector selector;
+  private volatile ServerSocketChannel server;
+
+  /**
+   * Prepares to stream a game.
+   * @param source Game to stream.
+   * @throws IllegalArgumentException If source is null.
+   */
+  public SpectatorServer(SnapshotSource source){
+    if(source == null){
+      throw new IllegalArgumentException("Expected snapshot source.");
+    }
+    this.source = source;
+    spectators = new ArrayList<Spectator>();
+    discard = ByteBuffer.allocate(256);
+  }
+
+  /**
+   * Returns the number of connected spectators.
+   * @return The number of connected spectators.
+   */
+  public synchronized int getSpectatorsCount(){
+    return spectators.size();
+  }
+
+  /**
+   * Returns how many deltas were skipped for spectators that lagged.
+   * @return The number of skipped deltas.
+   */
+  public synchronized long getDroppedFrames(){
+    return droppedFrames;
+  }
+
+  /**
+   * Streams until close() is called or the thread is interrupted. The
+   * port is released before this returns.
+   * @param port TCP port to listen on.
+   * @throws IOException If the socket cannot be opened.
+   */
+  public void serve(int port) throws IOException{
+    Selector selector = Selector.open();
+    ServerSocketChannel server;
+    try{
+      server = ServerSocketChannel.open();
+    }catch(IOException e){
+      selector.close();
+      throw e;
+    }
+    this.selector = selector;
+    this.server = server;
+    long nextFrame = System.nanoTime();
+    try{
+      server.bind(new InetSocketAddress("127.0.0.1", port), 1024);
+      server.configureBlocking(false);
+      acceptKey = server.register(selector, SelectionKey.OP_ACCEPT);
+      while(!isClosed && !Thread.currentThread().isInterrupted()){
+        long wait = (nextFrame - System.nanoTime()) / 1000000;
+        if(wait > 0){
+          selector.select(wait);
+        }else{
+          selector.selectNow();
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while(keys.hasNext()){
+          SelectionKey key = keys.next();
+          keys.remove();
+          if(! key.isValid() ){
+            continue;
+          }
+          if( key.isAcceptable() ){
+            accept(server, selector);
+          }else{
+            Spectator s = (Spectator) key.attachment();
+            if(key.isReadable() && !read(s)){
+              continue;
+            }
+            if(key.isValid() && key.isWritable()){
+              flush(s);
+            }
+          }
+        }
+        if(System.nanoTime() - nextFrame >= 0){
+          acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+          broadcast();
+          nextFrame += FRAME_MILLIS * 1000000L;
+          if(System.nanoTime() - nextFrame > 0){
+            nextFrame = System.nanoTime(); // fell behind; do not burst
+          }
+        }
+      }
+    }finally{
+      for(SelectionKey key : selector.keys()){
+        key.channel().close();
+      }
+      server.close();
+      selector.close();
+      synchronized(this){
+        spectators.clear();
+      }
+    }
+  }
+
+  /**
+   * Stops streaming from any thread: wakes the serving thread, which
+   * closes every socket and returns. Join that thread to know the port
+   * is free again.
+   */
+  public void close(){
+    isClosed = true;
+    Selector selector = this.selector;
+    if(selector != null){
+      selector.wakeup();
+    }
+    ServerSocketChannel server = this.server;
+    if(server != null){
+      try{
+        server.close();
+      }catch(IOException e){
+        // closed again by the serving thread
+      }
+    }
+  }
+
+  /*
+   * Takes every pending connection; each starts with a keyframe. When out
+   * of file descriptors, the rest wait in the backlog until next frame.
+   */
+  private void accept(ServerSocketChannel server, Selector selector) throws IOException{
+    SocketChannel channel;
+    while(true){
+      try{
+        channel = server.accept();
+      }catch(IOException e){
+        acceptKey.interestOps(0);
+        return;
+      }
+      if(channel == null){
+        return;
+      }
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER);
+      Spectator s = new Spectator(channel);
+      s.key = channel.register(selector, SelectionKey.OP_READ, s);
+      synchronized(this){
+        spectators.add(s);
+      }
+    }
+  }
+
+  /* Spectators send nothing; reading only notices them leave. */
+  private boolean read(Spectator s){
+    try{
+      discard.clear();
+      if(s.channel.read(discard) >= 0){
+        return true;
+      }
+    }catch(IOException e){
+      // treated as gone
+    }
+    drop(s);
+    return false;
+  }
+
+  /* Writes what one frame encoding found since the last frame. */
+  private void broadcast(){
+    GameSnapshot now = source.getSnapshot();
+    if(now == null || spectators.isEmpty()){
+      return;
+    }
+    frame++;
+    isKeyframeEncoded = false;
+    boolean isResized = sent == null || sent.getRow() != now.getRow() || sent.getCol() != now.getCol();
+    boolean hasDelta = !isResized && now != sent && encodeDelta(sent, now);
+    if(isResized){
+      allocate(now);
+    }
+    sent = now;
+    // backwards, so dropping a spectator does not skip another
+    for(int k = spectators.size() - 1; k >= 0; k--){
+      Spectator s = spectators.get(k);
+      if(s.backlog != null && s.backlog.hasRemaining()){
+        if(hasDelta || isResized){
+          s.needsKeyframe = true;
+          synchronized(this){
+            droppedFrames++;
+          }
+        }
+        continue;
+      }
+      if(s.needsKeyframe || isResized){
+        if(isResized || frame - s.keyframeSent >= KEYFRAME_FRAMES){
+          send(s, keyframe(now));
+          s.needsKeyframe = false;
+          s.keyframeSent = frame;
+        }
+      }else if(hasDelta){
+        send(s, delta);
+      }
+    }
+  }
+
+  /* Sizes the frame buffers for the worst case of the board. */
+  private void allocate(GameSnapshot now){
+    int cells = now.getRow() * now.getCol();
+    keyframe = ByteBuffer.allocateDirect(HEADER_SIZE + 4 + cells);
+    // a change takes at most a 3-byte gap and its Cell
+    delta = ByteBuffer.allocateDirect(HEADER_SIZE + COUNT_SIZE + cells * 4);
+  }
+
+  /* Encodes what changed from old to now into delta. Returns false if nothing did. */
+  private boolean encodeDelta(GameSnapshot old, GameSnapshot now){
+    int col = now.getCol();
+    int changes = 0;
+    int previous = -1;
+    delta.clear();
+    putHeader(delta, DELTA, now);
+    int countAt = delta.position();
+    delta.position(countAt + COUNT_SIZE);
+    for(int r = 0; r < now.getRow(); r++){
+      if( now.isSameRow(old, r) ){
+        continue;
+      }
+      for(int c = 0; c < col; c++){
+        byte cell = now.getCell(r, c);
+        if(cell != old.getCell(r, c)){
+          int index = r * col + c;
+          putVarint(delta, index - previous - 1);
+          delta.put(cell);
+          previous = index;
+          changes++;
+        }
+      }
+    }
+    boolean isChanged = changes > 0 || statusOf(now) != statusOf(old)
+      || now.getTotalFlagsCount() != old.getTotalFlagsCount()
+      || (int) (now.getTimeElapsed() * 1000) != (int) (old.getTimeElapsed() * 1000);
+    // the count goes in front in a fixed width, so the changes need not move
+    for(int k = 0; k < COUNT_SIZE; k++){
+      int bits = (changes >>> (7 * k)) & 0x7F;
+      delta.put(countAt + k, (byte) (k < COUNT_SIZE - 1 ? bits | 0x80 : bits));
+    }
+    delta.putInt(0, delta.position() - 4);
+    delta.flip();
+    return isChanged;
+  }
+
+  /* Encodes the whole board once per frame, on first need. */
+  private ByteBuffer keyframe(GameSnapshot now){
+    if(! isKeyframeEncoded ){
+      keyframe.clear();
+      putHeader(keyframe, KEYFRAME, now);
+      keyframe.putShort((short) now.getRow());
+      keyframe.putShort((short) now.getCol());
+      for(int r = 0; r < now.getRow(); r++){
+        for(int c = 0; c < now.getCol(); c++){
+          keyframe.put(now.getCell(r, c));
+        }
+      }
+      keyframe.putInt(0, keyframe.position() - 4);
+      keyframe.flip();
+      isKeyframeEncoded = true;
+    }
+    return keyframe;
+  }
+
+  private void putHeader(ByteBuffer out, byte type, GameSnapshot now){
+    out.putInt(0); // length, written last
+    out.put(type);
+    out.putInt(frame);
+    out.put(statusOf(now));
+    out.putShort((short) now.getTotalFlagsCount());
+    out.putInt((int) (now.getTimeElapsed() * 1000));
+  }
+
+  private static byte statusOf(GameSnapshot s){
+    return (byte) ((s.isPlaying() ? 1 : 0) | (s.isGameOver() ? 2 : 0));
+  }
+
+  /* Unsigned LEB128: 7 bits per byte, high bit set on all but the last. */
+  private static void putVarint(ByteBuffer out, int value){
+    while((value & ~0x7F) != 0){
+      out.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  /* Writes a shared frame; what the socket refuses is copied to the backlog. */
+  private void send(Spectator s, ByteBuffer buffer){
+    try{
+      buffer.rewind();
+      s.channel.write(buffer);
+      if(! buffer.hasRemaining() ){
+        return;
+      }
+      if(s.backlog == null || s.backlog.capacity() < buffer.remaining()){
+        s.backlog = ByteBuffer.allocate(buffer.remaining());
+      }
+      s.backlog.clear();
+      s.backlog.put(buffer);
+      s.backlog.flip();
+      s.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }catch(IOException e){
+      drop(s);
+    }
+  }
+
+  /* Continues a backlog once the socket has room. */
+  private void flush(Spectator s){
+    try{
+      s.channel.write(s.backlog);
+      if(! s.backlog.hasRemaining() ){
+        s.key.interestOps(SelectionKey.OP_READ);
+      }
+    }catch(IOException e){
+      drop(s);
+    }
+  }
+
+  private void drop(Spectator s){
+    s.key.cancel();
+    try{
+      s.channel.close();
+    }catch(IOException e){
+      // already gone
+    }
+    synchronized(this){
+      spectators.remove(s);
+    }
+  }
+
+  /** Connection of one spectator. */
+  private static class Spectator{
+    private SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer backlog;
+    private boolean needsKeyframe = true;
+    private int keyframeSent = -KEYFRAME_FRAMES;
+
+    private Spectator(SocketChannel channel){
+      this.channel = channel;
+    }
+  }
+
+}
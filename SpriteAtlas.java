@@ -0,0 +1,173 @@
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Every picture a Cell shows, pre-rendered side by side into one image
+ * for the current scale: the flag, mine and false-flag images, then the
+ * digits 1 to 8 in their colors. Painting a Cell is one blit of a tile;
+ * the atlas is only rendered again when the scale of the screen changes.
+ *
+ * The images are loaded once from the classpath (so from the jar), or
+ * from the working directory when they are not packaged.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public final class SpriteAtlas{
+  /** Sprite of a flag. */
+  public static final int FLAG = 0;
+  /** Sprite of a mine. */
+  public static final int MINE = 1;
+  /** Sprite of a flag that was not on a mine. */
+  public static final int FALSE = 2;
+  /** Size of a sprite in unscaled pixels. */
+  public static final int SPRITE_SIZE = 12;
+
+  private static final String[] IMAGE_NAMES = {"flag.png", "mine.png", "false.png"};
+  private static final int DIGIT_FIRST = IMAGE_NAMES.length; // sprite of digit 1
+  private static final int SPRITES_COUNT = DIGIT_FIRST + 8;
+  private static final Color[] DIGIT_COLOR = {
+    /*1*/ Color.BLUE,
+    /*2*/ Color.GREEN,
+    /*3*/ Color.RED,
+    /*4*/ Color.ORANGE,
+    /*5*/ Color.CYAN,
+    /*6*/ Color.YELLOW,
+    /*7*/ Color.DARK_GRAY,
+    /*8*/ Color.MAGENTA
+  };
+  private static final BufferedImage[] IMAGES = loadImages();
+  private static final Icon[] ICONS = new Icon[SPRITES_COUNT];
+  static{
+    for(int i = 0; i < SPRITES_COUNT; i++){
+      ICONS[i] = new SpriteIcon(i);
+    }
+  }
+  // atlas of the last scale painted; Cells on one screen share it
+  private static volatile SpriteAtlas current;
+
+  private final double scale;
+  private final int tile;
+  private final BufferedImage atlas;
+
+  /* Renders every sprite at the scale. */
+  private SpriteAtlas(double scale, Font font){
+    this.scale = scale;
+    tile = (int) Math.ceil(SPRITE_SIZE * scale);
+    atlas = new BufferedImage(tile * SPRITES_COUNT, tile, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = atlas.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    for(int i = 0; i < IMAGES.length; i++){
+      if(IMAGES[i] != null){
+        g.drawImage(IMAGES[i], i * tile, 0, tile, tile, null);
+      }
+    }
+    g.setFont(font.deriveFont(Font.BOLD, (float) (SPRITE_SIZE * scale)));
+    FontMetrics metrics = g.getFontMetrics();
+    for(int n = 1; n <= 8; n++){
+      String digit = String.valueOf(n);
+      int x = (DIGIT_FIRST + n - 1) * tile + (tile - metrics.stringWidth(digit)) / 2;
+      int y = (tile - metrics.getHeight()) / 2 + metrics.getAscent();
+      g.setColor(DIGIT_COLOR[n - 1]);
+      g.drawString(digit, x, y);
+    }
+    g.dispose();
+  }
+
+  /**
+   * Returns the icon of a picture.
+   * @param sprite FLAG, MINE or FALSE.
+   * @return Icon that paints the sprite.
+   */
+  public static Icon getIcon(int sprite){
+    return ICONS[sprite];
+  }
+
+  /**
+   * Returns the icon of a mines count.
+   * @param n Between 1 and 8.
+   * @return Icon that paints the digit.
+   * @throws IllegalArgumentException If n is not between 1 and 8.
+   */
+  public static Icon getDigitIcon(int n){
+    if(n < 1 || n > 8){
+      throw new IllegalArgumentException("Expected digit between 1 and 8.");
+    }
+    return ICONS[DIGIT_FIRST + n - 1];
+  }
+
+  /* The atlas for a scale, rendered on first use of that scale. */
+  private static SpriteAtlas atlasFor(double scale, Font font){
+    SpriteAtlas a = current;
+    if(a == null || a.scale != scale){
+      a = new SpriteAtlas(scale, font);
+      current = a;
+    }
+    return a;
+  }
+
+  /* Reads the images once; a missing image leaves its sprite blank. */
+  private static BufferedImage[] loadImages(){
+    BufferedImage[] images = new BufferedImage[IMAGE_NAMES.length];
+    for(int i = 0; i < IMAGE_NAMES.length; i++){
+      try{
+        InputStream in = SpriteAtlas.class.getResourceAsStream("/images/" + IMAGE_NAMES[i]);
+        if(in != null){
+          try{
+            images[i] = ImageIO.read(in);
+          }finally{
+            in.close();
+          }
+        }else{
+          File file = new File("images", IMAGE_NAMES[i]);
+          if( file.isFile() ){
+            images[i] = ImageIO.read(file);
+          }
+        }
+      }catch(IOException e){
+        System.err.println("Cannot load " + IMAGE_NAMES[i] + ": " + e.getMessage());
+      }
+    }
+    return images;
+  }
+
+  /** Paints one tile of the atlas of the scale it is painted at. */
+  private static class SpriteIcon implements Icon{
+    private final int sprite;
+
+    private SpriteIcon(int sprite){
+      this.sprite = sprite;
+    }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y){
+      double scale = g instanceof Graphics2D ? ((Graphics2D) g).getTransform().getScaleX() : 1;
+      SpriteAtlas a = atlasFor(scale, c.getFont());
+      int from = sprite * a.tile;
+      g.drawImage(a.atlas, x, y, x + SPRITE_SIZE, y + SPRITE_SIZE, from, 0, from + a.tile, a.tile, null);
+    }
+
+    @Override
+    public int getIconWidth(){
+      return SPRITE_SIZE;
+    }
+
+    @Override
+    public int getIconHeight(){
+      return SPRITE_SIZE;
+    }
+  }
+
+}
@@ -0,0 +1,298 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Scans a file written by MoveTelemetry, one game at a time. A column is
+ * only decoded when asked for, into arrays reused from game to game, so
+ * a scan of think times never touches the Cell column.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class TelemetryReader{
+  private MappedByteBuffer file;
+  private CRC32 crc;
+  // the current segment, copied out of the file
+  private byte[] segment;
+  private int corruptCount;
+
+  private long seed;
+  private long startMillis;
+  private int row;
+  private int col;
+  private int mines;
+  private byte result;
+  private int movesCount;
+  private int timeFrom;
+  private int typeFrom;
+  private int cellFrom;
+  private int cellTo;
+  private int[] thinkTimes;
+  private byte[] types;
+  private int[] cells;
+  private boolean isTimeDecoded;
+  private boolean isTypeDecoded;
+  private boolean isCellDecoded;
+
+  /**
+   * Opens a telemetry file for reading.
+   * @param file Telemetry file.
+   * @throws IOException If the file cannot be read, is not a telemetry
+   *                     file or is too large to map.
+   */
+  public TelemetryReader(File file) throws IOException{
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try{
+      if(channel.size() > Integer.MAX_VALUE){
+        throw new IOException("Telemetry file too large.");
+      }
+      this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }finally{
+      channel.close(); // the mapping stays valid
+    }
+    if(this.file.remaining() < MoveTelemetry.FILE_HEADER_SIZE || this.file.getInt() != MoveTelemetry.MAGIC
+         || this.file.getInt() != MoveTelemetry.VERSION){
+      throw new IOException("Not a telemetry file.");
+    }
+    crc = new CRC32();
+    segment = new byte[1024];
+    thinkTimes = new int[256];
+    types = new byte[256];
+    cells = new int[256];
+  }
+
+  /**
+   * Moves to the next game; segments that fail their checksum are skipped
+   * and counted.
+   * @return False after the last game.
+   */
+  public boolean nextGame(){
+    while(file.remaining() >= 4){
+      int length = file.getInt();
+      if(length < MoveTelemetry.SEGMENT_HEADER_SIZE + 4 || length > file.remaining()){
+        corruptCount++;
+        file.position(file.limit());
+        return false;
+      }
+      if(segment.length < length){
+        segment = new byte[Math.max(length, 2 * segment.length)];
+      }
+      file.get(segment, 0, length);
+      crc.reset();
+      crc.update(segment, 0, length - 4);
+      if((int) crc.getValue() != ByteBuffer.wrap(segment, length - 4, 4).getInt()){
+        corruptCount++;
+        continue;
+      }
+      ByteBuffer header = ByteBuffer.wrap(segment, 0, MoveTelemetry.SEGMENT_HEADER_SIZE);
+      seed = header.getLong();
+      startMillis = header.getLong();
+      row = header.getShort() & 0xFFFF;
+      col = header.getShort() & 0xFFFF;
+      mines = header.getInt();
+      result = header.get();
+      movesCount = header.getInt();
+      timeFrom = MoveTelemetry.SEGMENT_HEADER_SIZE;
+      typeFrom = timeFrom + header.getInt();
+      cellFrom = typeFrom + header.getInt();
+      cellTo = cellFrom + header.getInt();
+      if(movesCount < 0 || typeFrom < timeFrom || cellFrom < typeFrom || cellTo < cellFrom
+           || cellTo != length - 4 || cellFrom - typeFrom != movesCount){
+        corruptCount++;
+        continue;
+      }
+      isTimeDecoded = false;
+      isTypeDecoded = false;
+      isCellDecoded = false;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the milliseconds before each move, since the previous move
+   * or, for the first, since the game started. The array is reused by
+   * the next game; only the first getMovesCount() entries count.
+   * @return Think time of each move.
+   */
+  public int[] getThinkTimes(){
+    if(! isTimeDecoded ){
+      thinkTimes = ensureRoom(thinkTimes);
+      int p = timeFrom;
+      for(int k = 0; k < movesCount; k++){
+        int value = 0;
+        for(int shift = 0; ; shift += 7){
+          int b = segment[p++];
+          value |= (b & 0x7F) << shift;
+          if(b >= 0){
+            break;
+          }
+        }
+        thinkTimes[k] = value;
+      }
+      isTimeDecoded = true;
+    }
+    return thinkTimes;
+  }
+
+  /**
+   * Returns the type of each move: REVEAL, FLAG or CHORD of MoveTelemetry.
+   * The array is reused by the next game.
+   * @return Type of each move.
+   */
+  public byte[] getTypes(){
+    if(! isTypeDecoded ){
+      if(types.length < movesCount){
+        types = new byte[Math.max(movesCount, 2 * types.length)];
+      }
+      System.arraycopy(segment, typeFrom, types, 0, movesCount);
+      isTypeDecoded = true;
+    }
+    return types;
+  }
+
+  /**
+   * Returns the Cell index of each move, row * cols + col. The array is
+   * reused by the next game.
+   * @return Cell of each move.
+   */
+  public int[] getCells(){
+    if(! isCellDecoded ){
+      cells = ensureRoom(cells);
+      int p = cellFrom;
+      int index = 0;
+      for(int k = 0; k < movesCount; k++){
+        int value = 0;
+        for(int shift = 0; ; shift += 7){
+          int b = segment[p++];
+          value |= (b & 0x7F) << shift;
+          if(b >= 0){
+            break;
+          }
+        }
+        index += (value >>> 1) ^ -(value & 1);
+        cells[k] = index;
+      }
+      isCellDecoded = true;
+    }
+    return cells;
+  }
+
+  private int[] ensureRoom(int[] column){
+    return column.length < movesCount ? new int[Math.max(movesCount, 2 * column.length)] : column;
+  }
+
+  /**
+   * Returns the number of segments skipped as corrupt so far.
+   * @return The number of corrupt segments.
+   */
+  public int getCorruptCount(){
+    return corruptCount;
+  }
+
+  /**
+   * Returns the seed of the mine layout of the game.
+   * @return The seed of the game.
+   */
+  public long getSeed(){
+    return seed;
+  }
+
+  /**
+   * Returns when the game started, in epoch milliseconds.
+   * @return The start of the game.
+   */
+  public long getStartMillis(){
+    return startMillis;
+  }
+
+  /**
+   * Returns the number of rows of the game.
+   * @return The number of rows.
+   */
+  public int getRow(){
+    return row;
+  }
+
+  /**
+   * Returns the number of cols of the game.
+   * @return The number of cols.
+   */
+  public int getCol(){
+    return col;
+  }
+
+  /**
+   * Returns the number of mines of the game.
+   * @return The number of mines.
+   */
+  public int getMinesCount(){
+    return mines;
+  }
+
+  /**
+   * Returns how the game ended: ABANDONED, WON or LOST of MoveTelemetry.
+   * @return The result of the game.
+   */
+  public byte getResult(){
+    return result;
+  }
+
+  /**
+   * Returns the number of moves of the game.
+   * @return The number of moves.
+   */
+  public int getMovesCount(){
+    return movesCount;
+  }
+
+  /**
+   * Prints a summary of a telemetry file: games, think time, chord use
+   * and the moves that lost games.
+   * @param args Telemetry file.
+   */
+  public static void main(String[] args) throws IOException{
+    if(args.length < 1){
+      System.err.println("Usage: TelemetryReader file");
+      return;
+    }
+    long start = System.nanoTime();
+    TelemetryReader reader = new TelemetryReader(new File(args[0]));
+    int[] games = new int[3];
+    long moves = 0;
+    long thinkMillis = 0;
+    long[] movesByType = new long[3];
+    long[] lossesByType = new long[3];
+    while(reader.nextGame()){
+      games[reader.getResult()]++;
+      int[] thinkTimes = reader.getThinkTimes();
+      byte[] types = reader.getTypes();
+      int n = reader.getMovesCount();
+      for(int k = 0; k < n; k++){
+        thinkMillis += thinkTimes[k];
+        movesByType[types[k]]++;
+      }
+      if(reader.getResult() == MoveTelemetry.LOST){
+        lossesByType[types[n - 1]]++;
+      }
+      moves += n;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%d games: %d won, %d lost, %d abandoned, %d corrupt%n", games[0] + games[1] + games[2],
+                      games[MoveTelemetry.WON], games[MoveTelemetry.LOST], games[MoveTelemetry.ABANDONED],
+                      reader.getCorruptCount());
+    System.out.printf("%d moves: %s reveals, %s flags, %s chords; %.0f ms think time on average%n", moves,
+                      movesByType[MoveTelemetry.REVEAL], movesByType[MoveTelemetry.FLAG],
+                      movesByType[MoveTelemetry.CHORD], moves > 0 ? (double) thinkMillis / moves : 0.0);
+    System.out.printf("Lost by a reveal %d times, by a chord %d times%n", lossesByType[MoveTelemetry.REVEAL],
+                      lossesByType[MoveTelemetry.CHORD]);
+    System.out.printf("Scanned in %.2f s, %.0f moves/s%n", seconds, moves / Math.max(seconds, 1e-9));
+  }
+
+}
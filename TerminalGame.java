@@ -0,0 +1,256 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+
+/**
+ * Plays Minesweeper on a terminal, one command per line, using only the
+ * BoardModel: no AWT or Swing class is ever loaded, so it starts in a
+ * fraction of the time of the window and scripts can be piped through it.
+ *
+ * Commands:
+ *   new [beginner|intermediate|expert|rows cols mines] [seed]
+ *   reveal row col      (or r)
+ *   flag row col        (or f)
+ *   chord row col       (or c)
+ *   undo | redo | hint | show | quit
+ * Every reply ends with a status line "OK flags/mines PLAYING|WON|LOST"
+ * or "ERR message", so a script can read one reply per command.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class TerminalGame{
+  private BoardModel board;
+  private MoveHistory history;
+  private IncrementalSolver solver;
+  private PrintStream out;
+  private boolean isShowingBoard;
+  private StringBuilder text;
+
+  /**
+   * Creates a session that replies to out.
+   * @param out Where replies go.
+   * @param isShowingBoard True to draw the board after every move.
+   */
+  public TerminalGame(PrintStream out, boolean isShowingBoard){
+    this.out = out;
+    this.isShowingBoard = isShowingBoard;
+    text = new StringBuilder();
+    newGame(Difficulty.BEGINNER, System.nanoTime());
+  }
+
+  /**
+   * Reads commands until quit or the end of input.
+   * @param in Commands, one per line.
+   * @throws IOException If in cannot be read.
+   */
+  public void run(Reader in) throws IOException{
+    BufferedReader reader = new BufferedReader(in);
+    String line;
+    while((line = reader.readLine()) != null){
+      text.setLength(0);
+      boolean isQuit = handle(line.trim());
+      out.print(text);
+      out.flush();
+      if(isQuit){
+        return;
+      }
+    }
+  }
+
+  /* Applies one command and writes the reply into text. Returns true on quit. */
+  private boolean handle(String line){
+    if(line.isEmpty() || line.charAt(0) == '#'){
+      return false;
+    }
+    String[] token = line.split(" ");
+    try{
+      switch(token[0].toLowerCase()){
+        case "new":
+          newGame(token);
+          break;
+        case "r":
+        case "reveal":
+          history.reveal(indexOf(token));
+          break;
+        case "f":
+        case "flag":
+          history.flag(indexOf(token));
+          break;
+        case "c":
+        case "chord":
+          history.wideReveal(indexOf(token));
+          break;
+        case "undo":
+          history.undo();
+          break;
+        case "redo":
+          history.redo();
+          break;
+        case "hint":
+          hint();
+          break;
+        case "show":
+          drawBoard();
+          break;
+        case "quit":
+          text.append("OK\n");
+          return true;
+        default:
+          text.append("ERR Unknown command.\n");
+          return false;
+      }
+    }catch(NumberFormatException e){
+      text.setLength(0);
+      text.append("ERR Expected numbers.\n");
+      return false;
+    }catch(ArrayIndexOutOfBoundsException e){
+      text.setLength(0);
+      text.append("ERR Missing arguments.\n");
+      return false;
+    }catch(IllegalArgumentException | IllegalStateException e){
+      text.setLength(0);
+      text.append("ERR ").append(e.getMessage()).append('\n');
+      return false;
+    }
+    if(isShowingBoard && text.length() == 0){
+      drawBoard();
+    }
+    appendStatus();
+    return false;
+  }
+
+  /* new [difficulty | rows cols mines] [seed] */
+  private void newGame(String[] token){
+    if(token.length >= 4){
+      int row = Integer.parseInt(token[1]);
+      int col = Integer.parseInt(token[2]);
+      int mines = Integer.parseInt(token[3]);
+      long seed = token.length > 4 ? Long.parseLong(token[4]) : System.nanoTime();
+      newGame(new BoardModel(row, col, mines), seed);
+      return;
+    }
+    Difficulty d = token.length > 1 ? difficultyOf(token[1]) : Difficulty.BEGINNER;
+    newGame(d, token.length > 2 ? Long.parseLong(token[2]) : System.nanoTime());
+  }
+
+  /* Difficulty by name, in any case. */
+  private static Difficulty difficultyOf(String name){
+    for(Difficulty d : Difficulty.values()){
+      if( d.name().equalsIgnoreCase(name) ){
+        return d;
+      }
+    }
+    throw new IllegalArgumentException("Expected beginner, intermediate, expert or rows cols mines.");
+  }
+
+  /* Same sizes as the window. */
+  private void newGame(Difficulty d, long seed){
+    switch(d){
+      case INTERMEDIATE:
+        newGame(new BoardModel(16, 16, 40), seed);
+        break;
+      case EXPERT:
+        newGame(new BoardModel(16, 30, 99), seed);
+        break;
+      default:
+        newGame(new BoardModel(9, 9, 10), seed);
+    }
+  }
+
+  private void newGame(BoardModel board, long seed){
+    this.board = board;
+    history = new MoveHistory(board);
+    solver = new IncrementalSolver(board);
+    board.newGame(seed);
+  }
+
+  /* Cell index from "command row col", checked against the board. */
+  private int indexOf(String[] token){
+    int row = Integer.parseInt(token[1]);
+    int col = Integer.parseInt(token[2]);
+    if(row < 0 || row >= board.getRow() || col < 0 || col >= board.getCol()){
+      throw new IllegalArgumentException("Out of game bounds.");
+    }
+    return board.indexOf(row, col);
+  }
+
+  /*
+   * Suggests a proven move: "OK hint reveal r c", "OK hint flag r c" or
+   * "OK hint none", followed by the status line like any reply.
+   */
+  private void hint(){
+    int i = solver.nextSafe();
+    String move = "reveal";
+    if(i < 0){
+      i = solver.nextMine();
+      move = "flag";
+    }
+    if(i < 0){
+      text.append("OK hint none\n");
+    }else{
+      text.append("OK hint ").append(move).append(' ').append(i / board.getCol()).append(' ')
+        .append(i % board.getCol()).append('\n');
+    }
+  }
+
+  /* Column ruler, then one line per row: . hidden, F flag, * mine, digits. */
+  private void drawBoard(){
+    text.append("   ");
+    for(int c = 0; c < board.getCol(); c++){
+      text.append((char) ('0' + c % 10));
+    }
+    text.append('\n');
+    for(int r = 0; r < board.getRow(); r++){
+      if(r < 10){
+        text.append(' ');
+      }
+      text.append(r).append(' ');
+      for(int c = 0; c < board.getCol(); c++){
+        int i = board.indexOf(r, c);
+        if( board.isFlagged(i) ){
+          text.append('F');
+        }else if(! board.isRevealed(i) ){
+          text.append('.');
+        }else if( board.isMined(i) ){
+          text.append('*');
+        }else{
+          text.append((char) ('0' + board.getMinesCount(i)));
+        }
+      }
+      text.append('\n');
+    }
+  }
+
+  private void appendStatus(){
+    text.append("OK ").append(board.getTotalFlagsCount()).append('/').append(board.getTotalMinesCount())
+      .append(' ');
+    if( board.isVictory() ){
+      text.append("WON");
+    }else if( board.isGameOver() ){
+      text.append("LOST");
+    }else{
+      text.append("PLAYING");
+    }
+    text.append('\n');
+  }
+
+  /**
+   * Starts a terminal session on stdin and stdout.
+   * @param args [--quiet] to only print status lines and what show asks for.
+   */
+  public static void main(String[] args) throws IOException{
+    boolean isShowingBoard = true;
+    for(String arg : args){
+      if( arg.equals("--quiet") ){
+        isShowingBoard = false;
+      }
+    }
+    PrintStream out = new PrintStream(System.out, false);
+    new TerminalGame(out, isShowingBoard).run(new InputStreamReader(System.in));
+    out.flush();
+  }
+
+}
@@ -0,0 +1,238 @@
+import java.util.Arrays;
+
+/**
+ * Which Cells neighbor each other, compiled once per board shape into a
+ * flat table: the neighbors of Cell i are getNeighbors()[k] for k from
+ * getStarts()[i] to getStarts()[i + 1]. Rules and solvers only walk this
+ * table, so every variant runs without branching on the shape.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public final class Topology{
+  private static final int[][] KING = {
+    {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+  };
+  private static final int[][] KNIGHT = {
+    {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+  };
+  // hexagons in "odd-r" layout: odd rows are shifted half a Cell right
+  private static final int[][] HEX_EVEN = {
+    {-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}
+  };
+  private static final int[][] HEX_ODD = {
+    {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}
+  };
+
+  private final String name;
+  private final int row;
+  private final int col;
+  private final int[] starts;
+  private final int[] neighbors;
+  private final int maxDegree;
+
+  /* Compiles the table; odd rows use oddOffsets, even rows evenOffsets. */
+  private Topology(String name, int row, int col, int[][] evenOffsets, int[][] oddOffsets,
+                   boolean isWrapped){
+    if(row <= 0 || col <= 0){
+      throw new IllegalArgumentException("Expected positive dimensions.");
+    }
+    this.name = name;
+    this.row = row;
+    this.col = col;
+    int cells = row * col;
+    starts = new int[cells + 1];
+    int[] table = new int[cells * Math.max(evenOffsets.length, oddOffsets.length)];
+    int size = 0;
+    int degree = 0;
+    for(int i = 0; i < cells; i++){
+      starts[i] = size;
+      int r = i / col;
+      int c = i % col;
+      for(int[] offset : (r % 2 == 0 ? evenOffsets : oddOffsets)){
+        int nr = r + offset[0];
+        int nc = c + offset[1];
+        if(isWrapped){
+          nr = Math.floorMod(nr, row);
+          nc = Math.floorMod(nc, col);
+        }else if(nr < 0 || nr >= row || nc < 0 || nc >= col){
+          continue;
+        }
+        int n = nr * col + nc;
+        // small wrapped boards can reach a Cell twice, or itself
+        boolean isNew = n != i;
+        for(int k = starts[i]; k < size && isNew; k++){
+          isNew = table[k] != n;
+        }
+        if(isNew){
+          table[size++] = n;
+        }
+      }
+      degree = Math.max(degree, size - starts[i]);
+    }
+    starts[cells] = size;
+    neighbors = Arrays.copyOf(table, size);
+    maxDegree = degree;
+  }
+
+  /**
+   * Returns the classic grid: the 8 surrounding Cells.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return The compiled topology.
+   */
+  public static Topology square(int row, int col){
+    return new Topology("SQUARE", row, col, KING, KING, false);
+  }
+
+  /**
+   * Returns the grid whose edges wrap around to the opposite side.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return The compiled topology.
+   */
+  public static Topology torus(int row, int col){
+    return new Topology("TORUS", row, col, KING, KING, true);
+  }
+
+  /**
+   * Returns hexagonal Cells with 6 neighbors, odd rows shifted right.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return The compiled topology.
+   */
+  public static Topology hex(int row, int col){
+    return new Topology("HEX", row, col, HEX_EVEN, HEX_ODD, false);
+  }
+
+  /**
+   * Returns the variant where neighbors are a chess knight's move away.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return The compiled topology.
+   */
+  public static Topology knight(int row, int col){
+    return new Topology("KNIGHT", row, col, KNIGHT, KNIGHT, false);
+  }
+
+  /**
+   * Returns a topology from arbitrary {row, col} offsets. Neighborhood
+   * must be mutual, so every offset needs its opposite offset too.
+   * @param name Name of the variant.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @param offsets Offsets of the neighbors from any Cell.
+   * @param isWrapped True if the edges wrap around.
+   * @return The compiled topology.
+   * @throws IllegalArgumentException If an offset lacks its opposite.
+   */
+  public static Topology custom(String name, int row, int col, int[][] offsets, boolean isWrapped){
+    for(int[] a : offsets){
+      boolean hasOpposite = false;
+      for(int[] b : offsets){
+        hasOpposite |= a[0] == -b[0] && a[1] == -b[1];
+      }
+      if(! hasOpposite ){
+        throw new IllegalArgumentException("Expected the opposite of every offset.");
+      }
+    }
+    return new Topology(name, row, col, offsets, offsets, isWrapped);
+  }
+
+  /**
+   * Returns a built-in topology by name.
+   * @param name SQUARE, TORUS, HEX or KNIGHT, in any case.
+   * @param row Number of rows.
+   * @param col Number of cols.
+   * @return The compiled topology.
+   * @throws IllegalArgumentException If the name is unknown.
+   */
+  public static Topology named(String name, int row, int col){
+    switch(name.toUpperCase()){
+      case "SQUARE":
+        return square(row, col);
+      case "TORUS":
+        return torus(row, col);
+      case "HEX":
+        return hex(row, col);
+      case "KNIGHT":
+        return knight(row, col);
+      default:
+        throw new IllegalArgumentException("Unknown topology.");
+    }
+  }
+
+  /**
+   * Returns the name of the variant.
+   * @return The name of the variant.
+   */
+  public String getName(){
+    return name;
+  }
+
+  /**
+   * Returns the number of rows.
+   * @return The number of rows.
+   */
+  public int getRow(){
+    return row;
+  }
+
+  /**
+   * Returns the number of cols.
+   * @return The number of cols.
+   */
+  public int getCol(){
+    return col;
+  }
+
+  /**
+   * Returns the number of Cells.
+   * @return The number of Cells.
+   */
+  public int getCellsCount(){
+    return row * col;
+  }
+
+  /**
+   * Returns the most neighbors any Cell has.
+   * @return The most neighbors any Cell has.
+   */
+  public int getMaxDegree(){
+    return maxDegree;
+  }
+
+  /**
+   * Returns where the neighbors of each Cell start in getNeighbors(),
+   * with one extra entry at the end. Shared; must not be modified.
+   * @return Start of the neighbors of each Cell.
+   */
+  public int[] getStarts(){
+    return starts;
+  }
+
+  /**
+   * Returns the neighbors of every Cell, one after another.
+   * Shared; must not be modified.
+   * @return The neighbor table.
+   */
+  public int[] getNeighbors(){
+    return neighbors;
+  }
+
+  /**
+   * Checks if two Cells are neighbors.
+   * @param a Cell index.
+   * @param b Cell index.
+   * @return True if b is a neighbor of a.
+   */
+  public boolean isNeighbor(int a, int b){
+    for(int k = starts[a]; k < starts[a + 1]; k++){
+      if(neighbors[k] == b){
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * Zobrist hash of the visible state of a BoardModel, kept up to date in
+ * O(1) per changed Cell. Also hashes position-independent patterns, so
+ * the same frontier shape gets the same hash wherever it appears.
+ *
+ * @author Daniel Rolandi
+ * @version 10/19/2026
+ */
+public class ZobristHash implements BoardListener{
+  /** Visible states: HIDDEN, FLAGGED, a revealed MINE, or REVEALED + count. */
+  public static final int HIDDEN = 0;
+  public static final int FLAGGED = 1;
+  public static final int MINE = 2;
+  public static final int REVEALED = 3;
+  private static final int STATES = REVEALED + 9;
+
+  private BoardModel board;
+  private long[] keys;
+  private byte[] state;
+  private long hash;
+  private long hiddenHash;
+
+  /**
+   * Attaches a hash to the board.
+   * @param board Board to follow.
+   * @throws IllegalArgumentException If supplied BoardModel is null.
+   */
+  public ZobristHash(BoardModel board){
+    if(board == null){
+      throw new IllegalArgumentException("Expected board.");
+    }
+    this.board = board;
+    int cells = board.getRow() * board.getCol();
+    keys = new long[cells * STATES];
+    for(int i = 0; i < keys.length; i++){
+      keys[i] = mix(i);
+    }
+    state = new byte[cells];
+    for(int i = 0; i < cells; i++){
+      hiddenHash ^= keys[i * STATES + HIDDEN];
+    }
+    hash = hiddenHash;
+    for(int i = 0; i < cells; i++){
+      cellChanged(i);
+    }
+    board.addListener(this);
+  }
+
+  /**
+   * Returns the hash of what the player currently sees.
+   * @return The hash of the visible board.
+   */
+  public long getHash(){
+    return hash;
+  }
+
+  /**
+   * Replaces the key of the changed Cell.
+   * @param index Index of the changed Cell.
+   */
+  @Override
+  public void cellChanged(int index){
+    int now = visibleState(board, index);
+    hash ^= keys[index * STATES + state[index]] ^ keys[index * STATES + now];
+    state[index] = (byte) now;
+  }
+
+  /** Every Cell is hidden again. */
+  @Override
+  public void boardReset(){
+    Arrays.fill(state, (byte) HIDDEN);
+    hash = hiddenHash;
+  }
+
+  /**
+   * Returns the visible state of a Cell.
+   * @param board Board of the Cell.
+   * @param index Cell index.
+   * @return HIDDEN, FLAGGED, MINE or REVEALED + count.
+   */
+  public static int visibleState(BoardModel board, int index){
+    if( board.isFlagged(index) ){
+      return FLAGGED;
+    }
+    if(! board.isRevealed(index) ){
+      return HIDDEN;
+    }
+    if( board.isMined(index) ){
+      return MINE;
+    }
+    return REVEALED + board.getMinesCount(index);
+  }
+
+  /**
+   * Returns the key of a state at a position relative to some origin;
+   * XOR these over a pattern for a position-independent hash.
+   * @param dr Row offset from the origin.
+   * @param dc Col offset from the origin.
+   * @param state Visible state.
+   * @return Key of the state at that offset.
+   */
+  public static long relativeKey(int dr, int dc, int state){
+    return mix(((long) dr << 40) ^ ((long) dc << 20) ^ state ^ 0x5DEECE66DL);
+  }
+
+  /* SplitMix64 finalizer; spreads any input over all 64 bits. */
+  private static long mix(long z){
+    z += 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}